@@ -0,0 +1,34 @@
+#!/bin/bash
+# Login burst against a running backend: reports status codes and latency percentiles,
+# to compare the platform and virtual-thread modes and the hashing pool settings.
+# Usage: scripts/login-load-test.sh [base-url] [concurrency] [requests]
+set -e
+
+BASE_URL=${1:-http://localhost:8080}
+CONCURRENCY=${2:-200}
+REQUESTS=${3:-2000}
+CREDENTIALS='{"username":"loadtest@example.com","password":"loadtest"}'
+
+curl -s -o /dev/null -H 'Content-Type: application/json' -d "$CREDENTIALS" "$BASE_URL/api/auth/register" || true
+
+RESULTS=$(mktemp)
+START=$(date +%s%N)
+seq "$REQUESTS" | xargs -P "$CONCURRENCY" -I{} \
+    curl -s -o /dev/null -w '%{http_code} %{time_total}\n' \
+        -H 'Content-Type: application/json' -d "$CREDENTIALS" "$BASE_URL/api/auth/login" >> "$RESULTS"
+ELAPSED_MS=$(( ($(date +%s%N) - START) / 1000000 ))
+
+echo "requests: $REQUESTS, concurrency: $CONCURRENCY, elapsed: ${ELAPSED_MS} ms"
+echo "throughput: $(( REQUESTS * 1000 / ELAPSED_MS )) req/s"
+echo "status codes:"
+cut -d' ' -f1 "$RESULTS" | sort | uniq -c
+for status in 200 429 503; do
+    LATENCIES=$(awk -v s="$status" '$1 == s { print $2 * 1000 }' "$RESULTS" | sort -n)
+    COUNT=$(echo "$LATENCIES" | grep -c . || true)
+    if [ "$COUNT" -gt 0 ]; then
+        P50=$(echo "$LATENCIES" | sed -n "$(( (COUNT + 1) / 2 ))p")
+        P99=$(echo "$LATENCIES" | sed -n "$(( (COUNT * 99 + 99) / 100 ))p")
+        echo "latency ms for $status: p50 $P50, p99 $P99, max $(echo "$LATENCIES" | tail -1)"
+    fi
+done
+rm -f "$RESULTS"
@@ -0,0 +1,69 @@
+#!/bin/bash
+# Tweet write and feed read throughput for several shard counts. Each shard count gets a fresh
+# app instance; rate and concurrency limits are off so the store is what gets measured.
+# Build first with: mvn package
+# Usage: scripts/shard-benchmark.sh [requests] [concurrency] [shard counts...]
+set -e
+cd "$(dirname "$0")/.."
+
+REQUESTS=${1:-5000}
+CONCURRENCY=${2:-50}
+SHARD_COUNTS=${*:3}
+SHARD_COUNTS=${SHARD_COUNTS:-1 2 4 8}
+AUTHORS=32
+PORT=18081
+JAR=$(ls target/auth-backend-*.jar | head -1)
+BASE_URL=http://localhost:$PORT
+
+# Run REQUESTS curl calls at CONCURRENCY, cycling through the authors' tokens, and print requests per second
+throughput() {
+    local tokens=$1
+    shift
+    local requests=$(mktemp)
+    local results=$(mktemp)
+    for i in $(seq 1 $(( REQUESTS / AUTHORS + 1 ))); do
+        cat "$tokens"
+    done | head -n "$REQUESTS" > "$requests"
+    local start=$(date +%s%N)
+    xargs -P "$CONCURRENCY" -I{} curl -s -o /dev/null -w '%{http_code}\n' \
+        -H 'Authorization: Bearer {}' "$@" < "$requests" >> "$results"
+    local elapsed_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+    local failed=$(grep -vc '^200$' "$results" || true)
+    rm -f "$requests" "$results"
+    echo "$(( REQUESTS * 1000 / elapsed_ms )) req/s ($failed non-200)"
+}
+
+SUMMARY=""
+for shards in $SHARD_COUNTS; do
+    java -jar "$JAR" --server.port=$PORT --tweets.shards.count="$shards" \
+        --rate-limit.enabled=false --concurrency-limit.enabled=false > /dev/null 2>&1 &
+    PID=$!
+    until curl -s -o /dev/null "$BASE_URL/api/auth/login"; do
+        sleep 0.2
+    done
+
+    TOKENS=$(mktemp)
+    for a in $(seq 1 "$AUTHORS"); do
+        CREDENTIALS="{\"username\":\"author$a@example.com\",\"password\":\"benchmark\"}"
+        curl -s -o /dev/null -H 'Content-Type: application/json' -d "$CREDENTIALS" "$BASE_URL/api/auth/register"
+        curl -s -H 'Content-Type: application/json' -d "$CREDENTIALS" "$BASE_URL/api/auth/login" \
+            | sed -n 's/.*"token":"\([^"]*\)".*/\1/p' >> "$TOKENS"
+    done
+
+    WRITES=$(throughput "$TOKENS" -X POST -H 'Content-Type: application/json' \
+        -d '{"content":"benchmark tweet #shards"}' "$BASE_URL/api/tweets")
+    FIRST_PAGE=$(throughput "$TOKENS" "$BASE_URL/api/tweets?page=0&size=20")
+    DEEP_PAGE=$(throughput "$TOKENS" "$BASE_URL/api/tweets?page=50&size=20")
+    echo "shards $shards: writes $WRITES, feed page 0 $FIRST_PAGE, feed page 50 $DEEP_PAGE"
+    SUMMARY="$SUMMARY
+$shards	$WRITES	$FIRST_PAGE	$DEEP_PAGE"
+
+    rm -f "$TOKENS"
+    kill $PID
+    wait $PID 2> /dev/null || true
+done
+
+echo
+echo "requests: $REQUESTS per phase, concurrency: $CONCURRENCY, authors: $AUTHORS"
+printf 'shards\twrites\tfeed page 0\tfeed page 50'
+echo "$SUMMARY"
@@ -0,0 +1,56 @@
+#!/bin/bash
+# Time from JVM launch to the first successful login, for the default mode, the faststart
+# profile, and faststart with the AppCDS archive. Build first with: mvn -Pcds package
+# Usage: scripts/startup-benchmark.sh [runs]
+set -e
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=18080
+CLASSPATH="target/classes:$(cat target/cds-classpath.txt)"
+CREDENTIALS='{"username":"bench@example.com","password":"benchmark"}'
+RESULTS_FILE=startup-benchmark-results.txt
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Start the app with the given JVM/app arguments and print milliseconds until login succeeds
+time_to_login() {
+    local start=$(now_ms)
+    java "$@" -cp "$CLASSPATH" com.auth.AuthApplication --server.port=$PORT > /dev/null 2>&1 &
+    local pid=$!
+    until curl -sf -o /dev/null -H 'Content-Type: application/json' -d "$CREDENTIALS" \
+            http://localhost:$PORT/api/auth/register; do
+        sleep 0.05
+    done
+    until curl -s -H 'Content-Type: application/json' -d "$CREDENTIALS" \
+            http://localhost:$PORT/api/auth/login | grep -q token; do
+        sleep 0.05
+    done
+    echo $(( $(now_ms) - start ))
+    kill $pid
+    wait $pid 2> /dev/null || true
+}
+
+run_mode() {
+    local name=$1
+    shift
+    local total=0
+    for i in $(seq 1 "$RUNS"); do
+        local ms=$(time_to_login "$@")
+        total=$(( total + ms ))
+        echo "$name run $i: ${ms} ms"
+    done
+    echo "$name average: $(( total / RUNS )) ms"
+    echo "$name	$(( total / RUNS )) ms" >> "$RESULTS_FILE"
+}
+
+{
+    echo
+    echo "$(date -u '+%Y-%m-%d %H:%M UTC'), $(java -version 2>&1 | head -1), $(nproc) CPUs, $RUNS runs per mode"
+} >> "$RESULTS_FILE"
+run_mode default
+run_mode faststart -Dspring.profiles.active=faststart
+run_mode faststart+cds -XX:SharedArchiveFile=target/app-cds.jsa -Dspring.profiles.active=faststart
+echo "Averages appended to $RESULTS_FILE"
@@ -2,10 +2,16 @@ package com.auth;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class AuthApplication {
     public static void main(String[] args) {
-        SpringApplication.run(AuthApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(AuthApplication.class, args);
+        // Training run for the class-data-sharing archive: start up fully, serve the training
+        // requests (CdsTrainingRun), then exit so the JVM dumps it
+        if (context.getEnvironment().getProperty("app.startup.exit-after-refresh", Boolean.class, false)) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 }
@@ -1,81 +1,231 @@
 package com.auth.cache;
 
+import com.auth.dsa.SpaceSaving;
 import com.auth.model.User;
 import com.auth.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import java.util.Comparator;
-import java.util.Optional;
-
 @Service
 public class CacheService {
 
     private static final Logger logger = LoggerFactory.getLogger(CacheService.class);
-    private static final int MAX_CACHE_SIZE = 10000; // Maximum cache size
-    private TreeNode root; // Root of the binary search tree
-    private int size = 0;
-    private Map<String, Long> lastAccessTime = new HashMap<>();
-    private Map<String, Integer> cacheHits = new HashMap<>();
+    // Entries live off heap in the arena; the only heap memory per entry is its share of the
+    // arena's int[] hash index (see cachingReadme.md for measured figures)
+    private static final int BYTES_PER_ENTRY = UserRecordArena.SLOT_SIZE + UserRecordArena.INDEX_BYTES_PER_SLOT;
+    // Counters kept for the most accessed users; enough headroom for an accurate top 5
+    private static final int ACCESS_TRACKER_CAPACITY = 64;
+    // Usernames looked up per query when validating the L2 file at startup
+    private static final int L2_VALIDATION_BATCH = 500;
+    private int maxCacheSize; // Maximum L1 cache size, from entry count and byte budget
+    private UserRecordArena arena; // Compact user records
+    private MappedUserStore l2Store; // Optional memory-mapped second tier, null when disabled
     private long totalRequests = 0;
     private long cacheHitCount = 0;
+    private long l2HitCount = 0;
     private long cacheMissCount = 0;
+    private final SpaceSaving accessTracker = new SpaceSaving(ACCESS_TRACKER_CAPACITY); // Bounded top-k of hits
+    private long lastDecayMillis = System.currentTimeMillis();
+    private Map<String, Object> statsSnapshot; // Last computed stats, reused until stale
+    private long statsSnapshotMillis = 0;
+
+    @Value("${cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${cache.max-bytes:0}")
+    private long maxBytes;
+
+    @Value("${cache.l2.enabled:false}")
+    private boolean l2Enabled;
+
+    @Value("${cache.l2.path:data/user-cache.mmap}")
+    private String l2Path;
+
+    @Value("${cache.l2.max-entries:100000}")
+    private int l2MaxEntries;
+
+    @Value("${cache.stats.refresh-ms:5000}")
+    private long statsRefreshMillis;
+
+    @Value("${cache.stats.decay-interval-ms:600000}")
+    private long decayIntervalMillis;
 
     @Autowired
     private UserRepository userRepository; // Inject UserRepository for database interaction
 
+    @PostConstruct
+    public void init() {
+        maxCacheSize = maxEntries;
+        if (maxBytes > 0) {
+            maxCacheSize = (int) Math.min(maxCacheSize, maxBytes / BYTES_PER_ENTRY);
+        }
+        if (maxCacheSize <= 0) {
+            throw new IllegalStateException("cache.max-entries and cache.max-bytes leave no room for cache entries");
+        }
+        arena = new UserRecordArena(maxCacheSize);
+        logger.info("User cache sized to {} entries", maxCacheSize);
+
+        if (l2Enabled) {
+            try {
+                l2Store = MappedUserStore.open(Paths.get(l2Path), l2MaxEntries);
+                logger.info("Opened L2 user cache at {} with {} entries", l2Path, l2Store.size());
+                validateL2Store();
+            } catch (IOException e) {
+                logger.error("Could not open L2 user cache at {}, running without it: {}", l2Path, e.getMessage());
+            }
+        }
+    }
+
+    // The file may outlive the database (the default H2 database is in-memory), so drop
+    // records whose user no longer exists or whose id, role or password hash changed
+    private void validateL2Store() {
+        List<String> usernames = l2Store.usernames();
+        int removed = 0;
+        for (int start = 0; start < usernames.size(); start += L2_VALIDATION_BATCH) {
+            List<String> batch = usernames.subList(start, Math.min(start + L2_VALIDATION_BATCH, usernames.size()));
+            Map<String, User> current = userRepository.findByUsernameIn(batch).stream()
+                .collect(Collectors.toMap(User::getUsername, user -> user));
+            for (String username : batch) {
+                MappedUserStore.StoredUser stored = l2Store.get(username);
+                User user = current.get(username);
+                if (user == null || !Objects.equals(user.getId(), stored.getId())
+                        || !Objects.equals(user.getRole(), stored.getRole())
+                        || !Objects.equals(user.getPassword(), stored.getPasswordHash())) {
+                    l2Store.remove(username);
+                    removed++;
+                }
+            }
+        }
+        logger.info("Validated L2 user cache: {} stale entries removed, {} kept", removed, l2Store.size());
+    }
+
+    // Spill the L1 contents into the mapped file so the next start is warm
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (l2Store == null) {
+            return;
+        }
+        for (int slot : arena.occupiedSlots()) {
+            spillToL2(slot);
+        }
+        try {
+            l2Store.close();
+        } catch (IOException e) {
+            logger.error("Failed to flush L2 user cache: {}", e.getMessage());
+        }
+    }
+
     // Check if the cache is empty
-    public boolean isCacheEmpty() {
+    public synchronized boolean isCacheEmpty() {
         logger.info("Checking if cache is empty...");
-        return root == null;
+        return arena.size() == 0;
     }
 
-    // Add a user to the cache
-    public void addUserToCache(User user) {
+    // Add a user to the cache, or update the cached record if already present
+    public synchronized void addUserToCache(User user) {
         logger.info("Adding user to cache: {}", user.getUsername());
-        if (size >= MAX_CACHE_SIZE) {
+        if (!UserRecordArena.fits(user.getUsername(), user.getPassword())) {
+            logger.warn("Username or password hash of user {} does not fit a cache slot, not caching", user.getUsername());
+            return;
+        }
+
+        if (l2Store != null) {
+            // Tiers are exclusive: a user lives in L1 or L2, never both
+            l2Store.remove(user.getUsername());
+        }
+
+        byte[] key = UserRecordArena.encodeKey(user.getUsername());
+        int existing = arena.find(key);
+        if (existing >= 0) {
+            arena.write(existing, user.getId(), user.getRole(), user.getPassword());
+            return;
+        }
+
+        if (arena.size() >= maxCacheSize) {
             evictLeastRecentlyUsed();
         }
-        root = insertRec(root, user);
-        lastAccessTime.put(user.getUsername(), System.currentTimeMillis());
-        size++;
+        arena.allocate(key, user.getId(), user.getRole(), user.getPassword(), System.currentTimeMillis());
     }
 
-    // Recursive method to insert a user into the BST
-    private TreeNode insertRec(TreeNode root, User user) {
-        if (root == null) {
-            logger.debug("Inserting user at a new tree node: {}", user.getUsername());
-            return new TreeNode(user);
-        }
+    // Free L1 slots, used by bulk loads that must not evict existing entries
+    public synchronized int getFreeCapacity() {
+        return maxCacheSize - arena.size();
+    }
 
-        String username = user.getUsername();
-        if (username.compareTo(root.getUser().getUsername()) < 0) {
-            root.setLeft(insertRec(root.getLeft(), user));
-        } else {
-            root.setRight(insertRec(root.getRight(), user));
+    // Add many users at once without evicting anyone. Returns the number of users added.
+    public synchronized int addUsersToCache(List<User> users) {
+        int added = 0;
+        long now = System.currentTimeMillis();
+        for (User user : users) {
+            if (arena.size() >= maxCacheSize) {
+                break;
+            }
+            if (!UserRecordArena.fits(user.getUsername(), user.getPassword())) {
+                continue;
+            }
+            byte[] key = UserRecordArena.encodeKey(user.getUsername());
+            if (arena.find(key) >= 0) {
+                continue; // Already cached, or repeated in the input list
+            }
+            if (l2Store != null) {
+                l2Store.remove(user.getUsername());
+            }
+            arena.allocate(key, user.getId(), user.getRole(), user.getPassword(), now);
+            added++;
         }
+        logger.info("Bulk loaded {} users into cache, size is now {}", added, arena.size());
+        return added;
+    }
 
-        return root;
+    // Drop a user from both tiers, e.g. when another node reports a change
+    public synchronized void evictUser(String username) {
+        logger.info("Evicting user from cache: {}", username);
+        removeFromCache(UserRecordArena.encodeKey(username));
+        if (l2Store != null) {
+            l2Store.remove(username);
+        }
     }
 
     // Fetch a user by username
-    public User getUserByUsername(String username) {
+    public synchronized User getUserByUsername(String username) {
         logger.info("Fetching user for username: {}", username);
         totalRequests++;
-        
-        TreeNode node = searchNodeForUsername(root, username);
-        if (node == null) {
+
+        int slot = arena.find(UserRecordArena.encodeKey(username));
+        if (slot < 0 && l2Store != null) {
+            MappedUserStore.StoredUser stored = l2Store.get(username);
+            if (stored != null) {
+                logger.info("L2 cache HIT for username: {}", username);
+                l2HitCount++;
+                recordAccess(username, System.currentTimeMillis());
+                User user = new User();
+                user.setId(stored.getId());
+                user.setUsername(stored.getUsername());
+                user.setPassword(stored.getPasswordHash());
+                user.setRole(stored.getRole());
+                addUserToCache(user); // Promote to L1
+                return user;
+            }
+        }
+        if (slot < 0) {
             logger.warn("Cache MISS for username: {}", username);
             cacheMissCount++;
             return null;
@@ -83,161 +233,160 @@ public class CacheService {
 
         logger.info("Cache HIT for username: {}", username);
         cacheHitCount++;
-        cacheHits.merge(username, 1, Integer::sum);
-        lastAccessTime.put(username, System.currentTimeMillis());
-        return node.getUser();
+        long now = System.currentTimeMillis();
+        arena.touch(slot, now);
+        recordAccess(username, now);
+        return toUser(slot);
     }
 
-    // Fetch all users
-    public List<User> getAllUsersFromCache() {
+    // Fetch all users, sorted by username
+    public synchronized List<User> getAllUsersFromCache() {
         logger.info("Fetching all users from cache...");
-        List<User> users = new ArrayList<>();
-        traverseTree(root, users);
-        return users;
-    }
-
-    // Search for a node by username
-    private TreeNode searchNodeForUsername(TreeNode root, String username) {
-        if (root == null) {
-            return null;
+        List<User> users = new ArrayList<>(arena.size());
+        for (int slot : arena.occupiedSlots()) {
+            users.add(toUser(slot));
         }
-
-        String currentUsername = root.getUser().getUsername();
-        if (currentUsername.equals(username)) {
-            return root;
-        }
-
-        if (username.compareTo(currentUsername) < 0) {
-            return searchNodeForUsername(root.getLeft(), username);
-        }
-
-        return searchNodeForUsername(root.getRight(), username);
+        users.sort(Comparator.comparing(User::getUsername));
+        return users;
     }
 
-    // Traverse the tree and collect users
-    private void traverseTree(TreeNode node, List<User> users) {
-        if (node != null) {
-            traverseTree(node.getLeft(), users);
-            users.add(node.getUser());
-            traverseTree(node.getRight(), users);
-        }
+    // Rebuild a detached User from its compact arena record
+    private User toUser(int slot) {
+        User user = new User();
+        user.setId(arena.getId(slot));
+        user.setUsername(arena.getUsername(slot));
+        user.setPassword(arena.getPasswordHash(slot));
+        user.setRole(arena.getRole(slot));
+        return user;
     }
 
-    // Evict the least recently used user from the cache
+    // Evict the least recently used user from the cache (the tail of the arena's LRU list)
     private void evictLeastRecentlyUsed() {
-        String lruUser = lastAccessTime.entrySet()
-            .stream()
-            .min(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse(null);
-        
-        if (lruUser != null) {
-            logger.info("Evicting least recently used user: {}", lruUser);
-            removeFromCache(lruUser);
-            lastAccessTime.remove(lruUser);
-            size--;
+        int lruSlot = arena.leastRecentlyUsedSlot();
+        if (lruSlot >= 0) {
+            logger.info("Evicting least recently used user: {}", arena.getUsername(lruSlot));
+            if (l2Store != null) {
+                spillToL2(lruSlot);
+            }
+            arena.free(lruSlot);
         }
     }
 
-    // Remove a user from the cache
-    private void removeFromCache(String username) {
-        root = removeRec(root, username);
+    // Remove a user from the cache and release its arena slot
+    private void removeFromCache(byte[] key) {
+        int slot = arena.find(key);
+        if (slot >= 0) {
+            arena.free(slot);
+        }
     }
 
-    // Recursive method to remove a user from the BST
-    private TreeNode removeRec(TreeNode root, String username) {
-        if (root == null) {
-            return null;
+    // Copy an L1 record into the mapped L2 store
+    private void spillToL2(int slot) {
+        String username = arena.getUsername(slot);
+        if (!l2Store.put(username, arena.getId(slot), arena.getRole(slot), arena.getPasswordHash(slot))) {
+            logger.warn("L2 user cache is full or record too large, dropping user: {}", username);
         }
+    }
 
-        int comparison = username.compareTo(root.getUser().getUsername());
-        if (comparison < 0) {
-            root.setLeft(removeRec(root.getLeft(), username));
-        } else if (comparison > 0) {
-            root.setRight(removeRec(root.getRight(), username));
-        } else {
-            // Node to delete found
-            if (root.getLeft() == null) {
-                return root.getRight();
-            } else if (root.getRight() == null) {
-                return root.getLeft();
-            }
-            
-            // Node with two children
-            TreeNode successor = findMin(root.getRight());
-            root.setUser(successor.getUser());
-            root.setRight(removeRec(root.getRight(), successor.getUser().getUsername()));
+    // Count a hit in the top-k tracker, halving all counts once per decay interval
+    // so users that were popular long ago drop out of the ranking
+    private void recordAccess(String username, long now) {
+        if (now - lastDecayMillis >= decayIntervalMillis) {
+            accessTracker.decay(0.5);
+            lastDecayMillis = now;
         }
-        return root;
+        accessTracker.offer(username, 1);
     }
 
-    // Find the node with the minimum value in the tree
-    private TreeNode findMin(TreeNode node) {
-        while (node.getLeft() != null) {
-            node = node.getLeft();
+    // Get cache statistics, recomputed at most once per refresh interval
+    public synchronized Map<String, Object> getCacheStats() {
+        long now = System.currentTimeMillis();
+        if (statsSnapshot == null || now - statsSnapshotMillis >= statsRefreshMillis) {
+            statsSnapshot = computeCacheStats();
+            statsSnapshotMillis = now;
         }
-        return node;
+        return statsSnapshot;
     }
 
-    // Get cache statistics
-    public Map<String, Object> getCacheStats() {
+    private Map<String, Object> computeCacheStats() {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("size", size);
-        stats.put("maxSize", MAX_CACHE_SIZE);
+        stats.put("size", arena.size());
+        stats.put("maxSize", maxCacheSize);
         stats.put("totalRequests", totalRequests);
-        stats.put("cacheHits", cacheHitCount);
+        stats.put("cacheHits", cacheHitCount + l2HitCount);
+        stats.put("l1Hits", cacheHitCount);
+        stats.put("l2Hits", l2HitCount);
         stats.put("cacheMisses", cacheMissCount);
-        stats.put("hitRate", totalRequests > 0 ? (double) cacheHitCount / totalRequests : 0);
+        stats.put("hitRate", totalRequests > 0 ? (double) (cacheHitCount + l2HitCount) / totalRequests : 0);
+        stats.put("l2Enabled", l2Store != null);
+        if (l2Store != null) {
+            stats.put("l2Size", l2Store.size());
+            stats.put("l2MaxSize", l2Store.capacity());
+        }
+        stats.put("offHeapBytes", arena.offHeapBytes());
+        stats.put("bytesPerEntry", BYTES_PER_ENTRY);
         stats.put("mostAccessedUsers", getMostAccessedUsers(5));
         return stats;
     }
 
     private List<Map<String, Object>> getMostAccessedUsers(int limit) {
-        return cacheHits.entrySet().stream()
-            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-            .limit(limit)
-            .map(entry -> {
-                Map<String, Object> userStats = new HashMap<>();
-                userStats.put("username", entry.getKey());
-                userStats.put("hits", entry.getValue());
-                userStats.put("lastAccessed", lastAccessTime.get(entry.getKey()));
-                return userStats;
-            })
-            .collect(Collectors.toList());
+        List<Map<String, Object>> users = new ArrayList<>();
+        for (SpaceSaving.Counter counter : accessTracker.top(limit)) {
+            Map<String, Object> userStats = new HashMap<>();
+            userStats.put("username", counter.getKey());
+            userStats.put("hits", counter.getCount());
+            int slot = arena.find(UserRecordArena.encodeKey(counter.getKey()));
+            userStats.put("lastAccessed", slot >= 0 ? arena.getLastAccess(slot) : null);
+            users.add(userStats);
+        }
+        return users;
     }
 
     // Scheduled method to refresh the cache
     @Scheduled(fixedRate = 300000) // 5 minutes
-    public void refreshCache() {
+    public synchronized void refreshCache() {
         logger.info("Starting incremental cache refresh...");
         List<User> dbUsers = userRepository.findAll();
         Set<String> dbUsernames = dbUsers.stream()
             .map(User::getUsername)
             .collect(Collectors.toSet());
-        
+
         // Remove users that no longer exist in DB
         List<String> cachedUsers = getAllUsersFromCache()
             .stream()
             .map(User::getUsername)
             .collect(Collectors.toList());
-            
+
         for (String username : cachedUsers) {
             if (!dbUsernames.contains(username)) {
-                removeFromCache(username);
-                lastAccessTime.remove(username);
-                size--;
+                removeFromCache(UserRecordArena.encodeKey(username));
                 logger.info("Removed deleted user from cache: {}", username);
             }
         }
-        
+        if (l2Store != null) {
+            for (String username : l2Store.usernames()) {
+                if (!dbUsernames.contains(username)) {
+                    l2Store.remove(username);
+                    logger.info("Removed deleted user from L2 cache: {}", username);
+                }
+            }
+        }
+
         // Update or add new users
         for (User user : dbUsers) {
-            TreeNode node = searchNodeForUsername(root, user.getUsername());
-            if (node == null || !node.getUser().equals(user)) {
+            int slot = arena.find(UserRecordArena.encodeKey(user.getUsername()));
+            if (slot < 0 || !sameRecord(slot, user)) {
                 addUserToCache(user);
                 logger.info("Updated/Added user in cache: {}", user.getUsername());
             }
         }
-        logger.info("Incremental cache refresh completed. Current cache size: {}", size);
+        logger.info("Incremental cache refresh completed. Current cache size: {}", arena.size());
+    }
+
+    // Compare the cached record with a database user
+    private boolean sameRecord(int slot, User user) {
+        return Objects.equals(arena.getId(slot), user.getId())
+            && Objects.equals(arena.getRole(slot), user.getRole())
+            && Objects.equals(arena.getPasswordHash(slot), user.getPassword());
     }
 }
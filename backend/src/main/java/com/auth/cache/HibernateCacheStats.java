@@ -0,0 +1,52 @@
+package com.auth.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class HibernateCacheStats {
+
+    // Second-level (domain data) regions configured on the entities
+    private static final String[] DOMAIN_REGIONS = {"users", "users-by-username", "tweets"};
+    // Query cache regions configured on the repositories
+    private static final String[] QUERY_REGIONS = {"tweet-feed"};
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Hit/miss/put counts and hit rate for every Hibernate cache region
+    public Map<String, Object> getRegionStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        for (String region : DOMAIN_REGIONS) {
+            stats.put(region, toMap(statistics.getDomainDataRegionStatistics(region)));
+        }
+        for (String region : QUERY_REGIONS) {
+            stats.put(region, toMap(statistics.getQueryRegionStatistics(region)));
+        }
+        return stats;
+    }
+
+    private Map<String, Object> toMap(CacheRegionStatistics regionStats) {
+        Map<String, Object> stats = new HashMap<>();
+        if (regionStats == null) {
+            return stats;
+        }
+        long hits = regionStats.getHitCount();
+        long misses = regionStats.getMissCount();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("puts", regionStats.getPutCount());
+        stats.put("hitRate", hits + misses > 0 ? (double) hits / (hits + misses) : 0);
+        stats.put("elementsInMemory", regionStats.getElementCountInMemory());
+        return stats;
+    }
+}
@@ -0,0 +1,321 @@
+package com.auth.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Second cache tier: an open-addressing hash table of user records in a memory-mapped file.
+// The file survives restarts, so a warm node can reopen it instead of going back to the database.
+// Header: magic(4) | version(4) | capacity(4) | size(4) | tombstones(4), padded to 64 bytes
+// Slot:   state(1) | nameLength(2) | name(160) | id(8) | roleLength(1) | role(16) | hashLength(1) | hash(64), padded to 256 bytes
+public class MappedUserStore implements Closeable {
+
+    public static final int SLOT_SIZE = 256;
+    public static final int MAX_CAPACITY = (Integer.MAX_VALUE - 64) / SLOT_SIZE;
+    private static final int MAX_NAME_BYTES = 160;
+    private static final int MAX_ROLE_BYTES = 16;
+    private static final int MAX_HASH_BYTES = 64;
+
+    private static final int MAGIC = 0x55434348; // "UCCH"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int TOMBSTONES_OFFSET = 16;
+
+    private static final int STATE_OFFSET = 0;
+    private static final int NAME_LENGTH_OFFSET = 1;
+    private static final int NAME_OFFSET = 3;
+    private static final int ID_OFFSET = NAME_OFFSET + MAX_NAME_BYTES;
+    private static final int ROLE_LENGTH_OFFSET = ID_OFFSET + 8;
+    private static final int ROLE_OFFSET = ROLE_LENGTH_OFFSET + 1;
+    private static final int HASH_LENGTH_OFFSET = ROLE_OFFSET + MAX_ROLE_BYTES;
+    private static final int HASH_OFFSET = HASH_LENGTH_OFFSET + 1;
+
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final byte DELETED = 2;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int size;
+    private int tombstones; // DELETED slots; they still lengthen probe sequences until reused or compacted
+
+    // A user record read back from the file
+    public static final class StoredUser {
+        private final long id;
+        private final String username;
+        private final String role;
+        private final String passwordHash;
+
+        StoredUser(long id, String username, String role, String passwordHash) {
+            this.id = id;
+            this.username = username;
+            this.role = role;
+            this.passwordHash = passwordHash;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public String getPasswordHash() {
+            return passwordHash;
+        }
+    }
+
+    private MappedUserStore(FileChannel channel, MappedByteBuffer buffer, int capacity, int size, int tombstones) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.size = size;
+        this.tombstones = tombstones;
+    }
+
+    // Open the store at path, reusing its contents when the file was written with the same capacity
+    public static MappedUserStore open(Path path, int capacity) throws IOException {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Mapped store capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        long fileSize = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean reusable = channel.size() == fileSize;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+
+        if (reusable && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+                && buffer.getInt(CAPACITY_OFFSET) == capacity) {
+            return new MappedUserStore(channel, buffer, capacity, buffer.getInt(SIZE_OFFSET),
+                buffer.getInt(TOMBSTONES_OFFSET));
+        }
+
+        // New or incompatible file: start from an empty table
+        for (int slot = 0; slot < capacity; slot++) {
+            buffer.put(HEADER_SIZE + slot * SLOT_SIZE + STATE_OFFSET, EMPTY);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(SIZE_OFFSET, 0);
+        buffer.putInt(TOMBSTONES_OFFSET, 0);
+        return new MappedUserStore(channel, buffer, capacity, 0, 0);
+    }
+
+    // Insert or replace a record. Returns false when it does not fit a slot or the table is full.
+    public synchronized boolean put(String username, long id, String role, String passwordHash) {
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        byte[] roleBytes = role == null ? new byte[0] : role.getBytes(StandardCharsets.UTF_8);
+        byte[] hash = passwordHash.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES || roleBytes.length > MAX_ROLE_BYTES || hash.length > MAX_HASH_BYTES) {
+            return false;
+        }
+
+        int slot = find(name);
+        if (slot < 0) {
+            if (size >= maxLoad()) {
+                return false;
+            }
+            slot = firstFreeSlot(name);
+            if (buffer.get(slotOffset(slot) + STATE_OFFSET) == DELETED) {
+                tombstones--; // Reusing a tombstone does not grow the probe chains
+            } else if (size + tombstones >= maxLoad()) {
+                // Only tombstones stand between us and a full table: rebuild without them
+                compact();
+                slot = firstFreeSlot(name);
+            }
+            size++;
+            writeCounts();
+        }
+
+        write(slot, name, id, role, passwordHash);
+        return true;
+    }
+
+    public synchronized StoredUser get(String username) {
+        int slot = find(username.getBytes(StandardCharsets.UTF_8));
+        return slot < 0 ? null : read(slot);
+    }
+
+    public synchronized boolean remove(String username) {
+        int slot = find(username.getBytes(StandardCharsets.UTF_8));
+        if (slot < 0) {
+            return false;
+        }
+        buffer.put(slotOffset(slot) + STATE_OFFSET, DELETED);
+        size--;
+        tombstones++;
+        writeCounts();
+        if (tombstones > capacity / 4) {
+            compact();
+        }
+        return true;
+    }
+
+    // Usernames of every stored record
+    public synchronized List<String> usernames() {
+        List<String> usernames = new ArrayList<>();
+        for (int slot = 0; slot < capacity; slot++) {
+            int base = slotOffset(slot);
+            if (buffer.get(base + STATE_OFFSET) == USED) {
+                usernames.add(new String(getBytes(base + NAME_OFFSET, buffer.getShort(base + NAME_LENGTH_OFFSET)),
+                    StandardCharsets.UTF_8));
+            }
+        }
+        return usernames;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized int tombstones() {
+        return tombstones;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    // Live entries plus tombstones stay below 90% of the slots, so every probe sequence ends at an EMPTY slot
+    private int maxLoad() {
+        return capacity - capacity / 10;
+    }
+
+    private void writeCounts() {
+        buffer.putInt(SIZE_OFFSET, size);
+        buffer.putInt(TOMBSTONES_OFFSET, tombstones);
+    }
+
+    // Rehash every live record in place, turning all tombstones back into EMPTY slots
+    private void compact() {
+        List<StoredUser> live = new ArrayList<>(size);
+        for (int slot = 0; slot < capacity; slot++) {
+            if (buffer.get(slotOffset(slot) + STATE_OFFSET) == USED) {
+                live.add(read(slot));
+            }
+            buffer.put(slotOffset(slot) + STATE_OFFSET, EMPTY);
+        }
+        for (StoredUser user : live) {
+            byte[] name = user.getUsername().getBytes(StandardCharsets.UTF_8);
+            write(firstFreeSlot(name), name, user.getId(), user.getRole(), user.getPasswordHash());
+        }
+        tombstones = 0;
+        writeCounts();
+    }
+
+    // Linear probing lookup, -1 when the key is not stored
+    private int find(byte[] name) {
+        int slot = home(name);
+        for (int probes = 0; probes < capacity; probes++) {
+            int base = slotOffset(slot);
+            byte state = buffer.get(base + STATE_OFFSET);
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state == USED && keyEquals(base, name)) {
+                return slot;
+            }
+            slot = (slot + 1) % capacity;
+        }
+        return -1;
+    }
+
+    // First empty or deleted slot on the probe sequence of the key
+    private int firstFreeSlot(byte[] name) {
+        int slot = home(name);
+        while (buffer.get(slotOffset(slot) + STATE_OFFSET) == USED) {
+            slot = (slot + 1) % capacity;
+        }
+        return slot;
+    }
+
+    private int home(byte[] name) {
+        int hash = 1;
+        for (byte b : name) {
+            hash = 31 * hash + b;
+        }
+        hash ^= hash >>> 16;
+        return (hash & 0x7fffffff) % capacity;
+    }
+
+    private boolean keyEquals(int base, byte[] name) {
+        if (buffer.getShort(base + NAME_LENGTH_OFFSET) != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (buffer.get(base + NAME_OFFSET + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void write(int slot, byte[] name, long id, String role, String passwordHash) {
+        byte[] roleBytes = role == null ? new byte[0] : role.getBytes(StandardCharsets.UTF_8);
+        byte[] hash = passwordHash.getBytes(StandardCharsets.UTF_8);
+        int base = slotOffset(slot);
+        buffer.putShort(base + NAME_LENGTH_OFFSET, (short) name.length);
+        putBytes(base + NAME_OFFSET, name);
+        buffer.putLong(base + ID_OFFSET, id);
+        buffer.put(base + ROLE_LENGTH_OFFSET, role == null ? (byte) -1 : (byte) roleBytes.length);
+        putBytes(base + ROLE_OFFSET, roleBytes);
+        buffer.put(base + HASH_LENGTH_OFFSET, (byte) hash.length);
+        putBytes(base + HASH_OFFSET, hash);
+        buffer.put(base + STATE_OFFSET, USED);
+    }
+
+    private StoredUser read(int slot) {
+        int base = slotOffset(slot);
+        String username = new String(getBytes(base + NAME_OFFSET, buffer.getShort(base + NAME_LENGTH_OFFSET)),
+            StandardCharsets.UTF_8);
+        int roleLength = buffer.get(base + ROLE_LENGTH_OFFSET);
+        String role = roleLength < 0 ? null
+            : new String(getBytes(base + ROLE_OFFSET, roleLength), StandardCharsets.UTF_8);
+        String hash = new String(getBytes(base + HASH_OFFSET, buffer.get(base + HASH_LENGTH_OFFSET)),
+            StandardCharsets.UTF_8);
+        return new StoredUser(buffer.getLong(base + ID_OFFSET), username, role, hash);
+    }
+
+    private int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private void putBytes(int offset, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            buffer.put(offset + i, bytes[i]);
+        }
+    }
+
+    private byte[] getBytes(int offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return bytes;
+    }
+}
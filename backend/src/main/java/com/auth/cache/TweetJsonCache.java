@@ -0,0 +1,123 @@
+package com.auth.cache;
+
+import com.auth.model.Tweet;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Serialized JSON of each tweet, produced once and reused by every feed response.
+// Tweets are never edited, so an entry stays valid for as long as it is cached.
+@Component
+public class TweetJsonCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TweetJsonCache.class);
+    private static final byte[] CONTENT_START = "{\"content\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CONTENT_END = "],".getBytes(StandardCharsets.UTF_8);
+
+    private Map<Long, byte[]> serializedTweets; // Access-ordered, so the eldest entry is the LRU one
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    @Value("${tweets.json-cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostConstruct
+    public void init() {
+        serializedTweets = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // Serialize a freshly written tweet so the first feed read is already a hit
+    public void put(Tweet tweet) {
+        byte[] json = serialize(tweet);
+        synchronized (this) {
+            serializedTweets.put(tweet.getId(), json);
+        }
+    }
+
+    public byte[] getOrSerialize(Tweet tweet) {
+        synchronized (this) {
+            byte[] json = serializedTweets.get(tweet.getId());
+            if (json != null) {
+                hitCount++;
+                return json;
+            }
+            missCount++;
+        }
+        byte[] json = serialize(tweet);
+        synchronized (this) {
+            serializedTweets.put(tweet.getId(), json);
+        }
+        return json;
+    }
+
+    // Write a feed page by concatenating cached tweet bytes, followed by the page metadata
+    public void writePage(Page<Tweet> page, OutputStream out) throws IOException {
+        out.write(CONTENT_START);
+        List<Tweet> tweets = page.getContent();
+        for (int i = 0; i < tweets.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(getOrSerialize(tweets.get(i)));
+        }
+        out.write(CONTENT_END);
+
+        // Same fields as Jackson's serialization of the Page itself, so the response shape is unchanged
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("pageable", page.getPageable());
+        metadata.put("last", page.isLast());
+        metadata.put("totalPages", page.getTotalPages());
+        metadata.put("totalElements", page.getTotalElements());
+        metadata.put("size", page.getSize());
+        metadata.put("number", page.getNumber());
+        metadata.put("sort", page.getSort());
+        metadata.put("first", page.isFirst());
+        metadata.put("numberOfElements", page.getNumberOfElements());
+        metadata.put("empty", page.isEmpty());
+        byte[] metadataJson = objectMapper.writeValueAsBytes(metadata);
+        // Skip the opening brace: the metadata continues the object started above
+        out.write(metadataJson, 1, metadataJson.length - 1);
+        out.flush();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", serializedTweets.size());
+        stats.put("maxSize", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        return stats;
+    }
+
+    private byte[] serialize(Tweet tweet) {
+        try {
+            return objectMapper.writeValueAsBytes(tweet);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize tweet {}: {}", tweet.getId(), e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+}
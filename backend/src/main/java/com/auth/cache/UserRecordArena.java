@@ -0,0 +1,328 @@
+package com.auth.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Fixed-size user records packed into an off-heap ByteBuffer, with the username stored in the
+// slot, an open-addressing hash index over the slots and an intrusive LRU list through them.
+// Lookup, insert, touch, remove and LRU eviction are O(1) and allocate no per-entry objects.
+// Slot layout: id(8) | lastAccess(8) | prev(4) | next(4) | keyHash(4) | roleCode(1)
+//              | hashLength(1) | keyLength(1) | padding(1) | hash(64) | key(64)
+public class UserRecordArena {
+
+    public static final int SLOT_SIZE = 160;
+    public static final int MAX_HASH_BYTES = 64;
+    public static final int MAX_KEY_BYTES = 64;
+    // Upper bound of index bytes per slot: the table has 2 to 4 int buckets per slot, so load stays <= 0.5
+    public static final int INDEX_BYTES_PER_SLOT = 16;
+    private static final int INITIAL_SLOTS = 1024;
+    private static final int NONE = -1;
+
+    private static final int ID_OFFSET = 0;
+    private static final int LAST_ACCESS_OFFSET = 8;
+    private static final int PREV_OFFSET = 16;
+    private static final int NEXT_OFFSET = 20;
+    private static final int KEY_HASH_OFFSET = 24;
+    private static final int ROLE_OFFSET = 28;
+    private static final int HASH_LENGTH_OFFSET = 29;
+    private static final int KEY_LENGTH_OFFSET = 30;
+    private static final int HASH_OFFSET = 32;
+    private static final int KEY_OFFSET = 96;
+
+    private final int maxSlots;
+    private ByteBuffer buffer;
+    private int allocatedSlots;
+    private int nextUnusedSlot = 0;
+    private int[] freeSlots = new int[16];
+    private int freeCount = 0;
+    private int[] index; // slot + 1 per bucket, 0 when empty; linear probing
+    private int size = 0;
+    private int head = NONE; // Most recently used slot
+    private int tail = NONE; // Least recently used slot
+    private final List<String> roles = new ArrayList<>(); // role code -> role name
+
+    public UserRecordArena(int maxSlots) {
+        if (maxSlots > Integer.MAX_VALUE / SLOT_SIZE) {
+            throw new IllegalArgumentException("The cache arena holds at most " + Integer.MAX_VALUE / SLOT_SIZE + " entries");
+        }
+        this.maxSlots = maxSlots;
+        this.allocatedSlots = Math.min(INITIAL_SLOTS, maxSlots);
+        this.buffer = ByteBuffer.allocateDirect(allocatedSlots * SLOT_SIZE);
+        this.index = new int[indexCapacity(allocatedSlots)];
+    }
+
+    public static byte[] encodeKey(String username) {
+        return username.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Whether a username and password hash fit in a slot
+    public static boolean fits(String username, String passwordHash) {
+        return username != null && encodeKey(username).length <= MAX_KEY_BYTES
+            && passwordHash != null && passwordHash.getBytes(StandardCharsets.UTF_8).length <= MAX_HASH_BYTES;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Slot holding the key, or -1
+    public int find(byte[] key) {
+        int hash = hash(key);
+        int mask = index.length - 1;
+        for (int bucket = hash & mask; index[bucket] != 0; bucket = (bucket + 1) & mask) {
+            int slot = index[bucket] - 1;
+            if (buffer.getInt(slot * SLOT_SIZE + KEY_HASH_OFFSET) == hash && keyEquals(slot, key)) {
+                return slot;
+            }
+        }
+        return NONE;
+    }
+
+    // Store a new record (the key must not be present) as the most recently used one,
+    // and return its slot, or -1 when the arena is full
+    public int allocate(byte[] key, long id, String role, String passwordHash, long now) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else if (nextUnusedSlot < maxSlots) {
+            if (nextUnusedSlot == allocatedSlots) {
+                grow();
+            }
+            slot = nextUnusedSlot++;
+        } else {
+            return NONE;
+        }
+        int base = slot * SLOT_SIZE;
+        int hash = hash(key);
+        buffer.putInt(base + KEY_HASH_OFFSET, hash);
+        buffer.put(base + KEY_LENGTH_OFFSET, (byte) key.length);
+        for (int i = 0; i < key.length; i++) {
+            buffer.put(base + KEY_OFFSET + i, key[i]);
+        }
+        write(slot, id, role, passwordHash);
+        buffer.putLong(base + LAST_ACCESS_OFFSET, now);
+        indexInsert(slot, hash);
+        linkFirst(slot);
+        size++;
+        return slot;
+    }
+
+    // Overwrite the user fields of an existing slot, keeping its key and access time
+    public void write(int slot, long id, String role, String passwordHash) {
+        byte[] hash = passwordHash.getBytes(StandardCharsets.UTF_8);
+        int base = slot * SLOT_SIZE;
+        buffer.putLong(base + ID_OFFSET, id);
+        buffer.put(base + ROLE_OFFSET, roleCode(role));
+        buffer.put(base + HASH_LENGTH_OFFSET, (byte) hash.length);
+        for (int i = 0; i < hash.length; i++) {
+            buffer.put(base + HASH_OFFSET + i, hash[i]);
+        }
+    }
+
+    public void free(int slot) {
+        indexRemove(slot);
+        unlink(slot);
+        size--;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    public String getUsername(int slot) {
+        int base = slot * SLOT_SIZE;
+        byte[] key = new byte[buffer.get(base + KEY_LENGTH_OFFSET)];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = buffer.get(base + KEY_OFFSET + i);
+        }
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    public long getId(int slot) {
+        return buffer.getLong(slot * SLOT_SIZE + ID_OFFSET);
+    }
+
+    public String getRole(int slot) {
+        int code = buffer.get(slot * SLOT_SIZE + ROLE_OFFSET);
+        return code < 0 ? null : roles.get(code);
+    }
+
+    public String getPasswordHash(int slot) {
+        int base = slot * SLOT_SIZE;
+        byte[] hash = new byte[buffer.get(base + HASH_LENGTH_OFFSET)];
+        for (int i = 0; i < hash.length; i++) {
+            hash[i] = buffer.get(base + HASH_OFFSET + i);
+        }
+        return new String(hash, StandardCharsets.UTF_8);
+    }
+
+    public long getLastAccess(int slot) {
+        return buffer.getLong(slot * SLOT_SIZE + LAST_ACCESS_OFFSET);
+    }
+
+    // Record a cache hit on the slot: it becomes the most recently used one
+    public void touch(int slot, long now) {
+        buffer.putLong(slot * SLOT_SIZE + LAST_ACCESS_OFFSET, now);
+        if (slot != head) {
+            unlink(slot);
+            linkFirst(slot);
+        }
+    }
+
+    // Tail of the LRU list, -1 if empty
+    public int leastRecentlyUsedSlot() {
+        return tail;
+    }
+
+    // All occupied slots, most recently used first
+    public List<Integer> occupiedSlots() {
+        List<Integer> slots = new ArrayList<>(size);
+        for (int slot = head; slot != NONE; slot = getNext(slot)) {
+            slots.add(slot);
+        }
+        return slots;
+    }
+
+    public long offHeapBytes() {
+        return buffer.capacity();
+    }
+
+    private int getPrev(int slot) {
+        return buffer.getInt(slot * SLOT_SIZE + PREV_OFFSET);
+    }
+
+    private int getNext(int slot) {
+        return buffer.getInt(slot * SLOT_SIZE + NEXT_OFFSET);
+    }
+
+    private void setPrev(int slot, int prev) {
+        buffer.putInt(slot * SLOT_SIZE + PREV_OFFSET, prev);
+    }
+
+    private void setNext(int slot, int next) {
+        buffer.putInt(slot * SLOT_SIZE + NEXT_OFFSET, next);
+    }
+
+    private void linkFirst(int slot) {
+        setPrev(slot, NONE);
+        setNext(slot, head);
+        if (head != NONE) {
+            setPrev(head, slot);
+        } else {
+            tail = slot;
+        }
+        head = slot;
+    }
+
+    private void unlink(int slot) {
+        int prev = getPrev(slot);
+        int next = getNext(slot);
+        if (prev != NONE) {
+            setNext(prev, next);
+        } else {
+            head = next;
+        }
+        if (next != NONE) {
+            setPrev(next, prev);
+        } else {
+            tail = prev;
+        }
+    }
+
+    private void indexInsert(int slot, int hash) {
+        int mask = index.length - 1;
+        int bucket = hash & mask;
+        while (index[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        index[bucket] = slot + 1;
+    }
+
+    // Backward-shift deletion: later entries of the probe run move up into the gap,
+    // so the table never needs tombstones
+    private void indexRemove(int slot) {
+        int mask = index.length - 1;
+        int gap = buffer.getInt(slot * SLOT_SIZE + KEY_HASH_OFFSET) & mask;
+        while (index[gap] != slot + 1) {
+            gap = (gap + 1) & mask;
+        }
+        for (int bucket = (gap + 1) & mask; index[bucket] != 0; bucket = (bucket + 1) & mask) {
+            int home = buffer.getInt((index[bucket] - 1) * SLOT_SIZE + KEY_HASH_OFFSET) & mask;
+            // The entry may move into the gap unless its home lies cyclically in (gap, bucket]
+            boolean homeInRange = gap <= bucket ? gap < home && home <= bucket : gap < home || home <= bucket;
+            if (!homeInRange) {
+                index[gap] = index[bucket];
+                gap = bucket;
+            }
+        }
+        index[gap] = 0;
+    }
+
+    private boolean keyEquals(int slot, byte[] key) {
+        int base = slot * SLOT_SIZE;
+        if (buffer.get(base + KEY_LENGTH_OFFSET) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(base + KEY_OFFSET + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Polynomial hash finalized with murmur3's fmix32, so the low bits used by the mask are well mixed
+    private static int hash(byte[] key) {
+        int h = 1;
+        for (byte b : key) {
+            h = 31 * h + b;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    // Smallest power of two holding at least two buckets per slot
+    private static int indexCapacity(int slots) {
+        return Integer.highestOneBit(Math.max(1, slots * 2 - 1)) << 1;
+    }
+
+    private byte roleCode(String role) {
+        if (role == null) {
+            return -1;
+        }
+        int code = roles.indexOf(role);
+        if (code < 0) {
+            if (roles.size() == Byte.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct roles for the cache arena");
+            }
+            roles.add(role);
+            code = roles.size() - 1;
+        }
+        return (byte) code;
+    }
+
+    // Double the arena (bounded by maxSlots), copying existing records over, and rebuild the
+    // index at twice the new slot count. Slot numbers don't change, so the LRU links stay valid.
+    private void grow() {
+        int newSlots = (int) Math.min((long) allocatedSlots * 2, maxSlots);
+        ByteBuffer larger = ByteBuffer.allocateDirect(newSlots * SLOT_SIZE);
+        ByteBuffer old = buffer.duplicate();
+        old.clear();
+        larger.put(old);
+        larger.clear();
+        buffer = larger;
+        allocatedSlots = newSlots;
+
+        index = new int[indexCapacity(newSlots)];
+        for (int slot = head; slot != NONE; slot = getNext(slot)) {
+            indexInsert(slot, buffer.getInt(slot * SLOT_SIZE + KEY_HASH_OFFSET));
+        }
+    }
+}
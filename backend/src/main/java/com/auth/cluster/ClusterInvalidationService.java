@@ -0,0 +1,282 @@
+package com.auth.cluster;
+
+import com.auth.cache.CacheService;
+import com.auth.model.User;
+import com.auth.service.SessionManager;
+import com.auth.service.UsernameFilterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ClusterInvalidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterInvalidationService.class);
+    // Usernames per USERS_IMPORTED message, leaving room in a 1024-byte multicast packet
+    // for the header and the signature
+    private static final int MAX_BATCH_BYTES = 800;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private ClusterTransport transport; // null when clustering is disabled
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private MessageAuthenticator authenticator;
+    private final AtomicBoolean tweetsCreated = new AtomicBoolean();
+    private ScheduledExecutorService feedFlusher;
+
+    @Value("${cluster.transport:none}")
+    private String transportType;
+
+    @Value("${cluster.multicast.group:230.0.0.1}")
+    private String multicastGroup;
+
+    @Value("${cluster.multicast.port:4446}")
+    private int multicastPort;
+
+    @Value("${cluster.multicast.ttl:1}")
+    private int multicastTtl;
+
+    // Interface to join the group on, empty for the system default
+    @Value("${cluster.multicast.interface:}")
+    private String multicastInterface;
+
+    // Shared HMAC key; required for multicast, where anyone on the segment can send packets
+    @Value("${cluster.secret:}")
+    private String secret;
+
+    // Signed messages older than this are treated as replays
+    @Value("${cluster.max-message-age-ms:30000}")
+    private long maxMessageAgeMillis;
+
+    // Tweets written on this node are announced at most once per interval
+    @Value("${cluster.feed-invalidation-interval-ms:5000}")
+    private long feedInvalidationIntervalMillis;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private UsernameFilterService usernameFilterService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void start() throws IOException {
+        switch (transportType) {
+            case "none":
+                logger.info("Cluster invalidation disabled");
+                return;
+            case "loopback":
+                transport = new LoopbackTransport();
+                break;
+            case "multicast":
+                if (secret.isEmpty()) {
+                    throw new IllegalStateException("cluster.secret must be set for the multicast transport");
+                }
+                NetworkInterface networkInterface = multicastInterface.isEmpty() ? null
+                    : NetworkInterface.getByName(multicastInterface);
+                transport = new MulticastTransport(InetAddress.getByName(multicastGroup), multicastPort,
+                    multicastTtl, networkInterface);
+                break;
+            default:
+                throw new IllegalStateException("Unknown cluster.transport: " + transportType);
+        }
+        authenticator = new MessageAuthenticator(secretBytes());
+        transport.start(this::onMessage);
+        feedFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-feed-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        feedFlusher.scheduleWithFixedDelay(this::flushTweetsCreated, feedInvalidationIntervalMillis,
+            feedInvalidationIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Cluster invalidation started with {} transport, node id {}", transportType, nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (feedFlusher != null) {
+            feedFlusher.shutdownNow();
+        }
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    // A user was created or changed on this node
+    public void publishUserUpsert(String username) {
+        publish(ClusterMessage.Type.USER_UPSERT, username);
+    }
+
+    // Users were bulk-imported on this node; they are packed into as few messages as fit a packet
+    public void publishUsersImported(List<String> usernames) {
+        if (transport == null) {
+            return;
+        }
+        StringBuilder batch = new StringBuilder();
+        for (String username : usernames) {
+            if (batch.length() > 0 && batch.length() + 1 + username.length() > MAX_BATCH_BYTES) {
+                publish(ClusterMessage.Type.USERS_IMPORTED, batch.toString());
+                batch.setLength(0);
+            }
+            if (batch.length() > 0) {
+                batch.append('\n');
+            }
+            batch.append(username);
+        }
+        if (batch.length() > 0) {
+            publish(ClusterMessage.Type.USERS_IMPORTED, batch.toString());
+        }
+    }
+
+    // A user was removed on this node
+    public void publishUserDeleted(String username, Long userId) {
+        publish(ClusterMessage.Type.USER_DELETE, userId, username);
+    }
+
+    // A user's session was invalidated on this node
+    public void publishSessionRevoked(String username) {
+        publish(ClusterMessage.Type.SESSION_REVOKE, username);
+    }
+
+    // A tweet was written on this node, so other nodes' cached feed pages are stale. Tweets are
+    // coalesced into one TWEET_CREATED per interval instead of one feed region eviction per tweet.
+    public void publishTweetCreated() {
+        if (transport != null) {
+            tweetsCreated.set(true);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("transport", transportType);
+        stats.put("sent", sentCount.get());
+        stats.put("received", receivedCount.get());
+        stats.put("rejected", rejectedCount.get());
+        return stats;
+    }
+
+    private void flushTweetsCreated() {
+        if (tweetsCreated.getAndSet(false)) {
+            publish(ClusterMessage.Type.TWEET_CREATED, "");
+        }
+    }
+
+    private void publish(ClusterMessage.Type type, String username) {
+        publish(type, null, username);
+    }
+
+    private void publish(ClusterMessage.Type type, Long userId, String username) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            ClusterMessage message = new ClusterMessage(type, nodeId, System.currentTimeMillis(), userId, username);
+            transport.send(authenticator.sign(message.encode()));
+            sentCount.incrementAndGet();
+        } catch (IOException e) {
+            // Other nodes converge on the next cache refresh or miss
+            logger.error("Failed to publish {} for {}: {}", type, username, e.getMessage());
+        }
+    }
+
+    private void onMessage(byte[] payload) {
+        byte[] verified = authenticator.verify(payload);
+        if (verified == null) {
+            rejectedCount.incrementAndGet();
+            logger.warn("Ignoring cluster message with an invalid signature");
+            return;
+        }
+        ClusterMessage message;
+        try {
+            message = ClusterMessage.decode(verified);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring cluster message: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(message.getOriginNodeId())) {
+            return; // Already applied locally
+        }
+        if (Math.abs(System.currentTimeMillis() - message.getSentAt()) > maxMessageAgeMillis) {
+            rejectedCount.incrementAndGet();
+            logger.warn("Ignoring stale cluster message {} for {}", message.getType(), message.getUsername());
+            return;
+        }
+        receivedCount.incrementAndGet();
+        logger.debug("Applying {} for {} from node {}", message.getType(), message.getUsername(), message.getOriginNodeId());
+
+        switch (message.getType()) {
+            case USER_UPSERT:
+                // Registered elsewhere: make sure this node's filter knows the username too
+                usernameFilterService.add(message.getUsername());
+                cacheService.evictUser(message.getUsername());
+                break;
+            case USERS_IMPORTED:
+                for (String username : message.getUsername().split("\n")) {
+                    usernameFilterService.add(username);
+                    cacheService.evictUser(username);
+                }
+                break;
+            case USER_DELETE:
+                // Drop the stale copies; the next lookup reloads the user from the database
+                cacheService.evictUser(message.getUsername());
+                if (message.getUserId() != null) {
+                    evictUserEntity(message.getUserId());
+                }
+                break;
+            case SESSION_REVOKE:
+                sessionManager.invalidateSession(message.getUsername());
+                break;
+            case TWEET_CREATED:
+                evictFeedQueries();
+                break;
+        }
+    }
+
+    // Hibernate's second-level regions are per node and only see local writes. A cached
+    // username -> id mapping left in the natural-id region resolves to no entity once the
+    // entry is gone, so only the entity itself is evicted.
+    private void evictUserEntity(Long userId) {
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictEntityData(User.class, userId);
+    }
+
+    private void evictFeedQueries() {
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictQueryRegion("tweet-feed");
+    }
+
+    private byte[] secretBytes() {
+        if (!secret.isEmpty()) {
+            return secret.getBytes(StandardCharsets.UTF_8);
+        }
+        // Loopback never leaves the process, so a per-process key is enough
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+}
@@ -0,0 +1,74 @@
+package com.auth.cluster;
+
+import java.nio.charset.StandardCharsets;
+
+// Invalidation event exchanged between backend instances.
+// Wire format (UTF-8): TYPE|originNodeId|sentAtMillis|userId|username, userId empty when unknown
+public class ClusterMessage {
+
+    public enum Type {
+        USER_UPSERT,
+        USERS_IMPORTED, // The username field holds newline-separated usernames
+        USER_DELETE,
+        SESSION_REVOKE,
+        TWEET_CREATED
+    }
+
+    private final Type type;
+    private final String originNodeId;
+    private final long sentAt;
+    private final Long userId;
+    private final String username;
+
+    public ClusterMessage(Type type, String originNodeId, long sentAt, String username) {
+        this(type, originNodeId, sentAt, null, username);
+    }
+
+    public ClusterMessage(Type type, String originNodeId, long sentAt, Long userId, String username) {
+        this.type = type;
+        this.originNodeId = originNodeId;
+        this.sentAt = sentAt;
+        this.userId = userId;
+        this.username = username;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getOriginNodeId() {
+        return originNodeId;
+    }
+
+    public long getSentAt() {
+        return sentAt;
+    }
+
+    // Null unless the sender knew the id
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public byte[] encode() {
+        return (type.name() + "|" + originNodeId + "|" + sentAt + "|" + (userId == null ? "" : userId) + "|" + username).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Usernames may contain '|', so only the first four separators are significant
+    public static ClusterMessage decode(byte[] payload) {
+        String text = new String(payload, StandardCharsets.UTF_8);
+        String[] parts = text.split("\\|", 5);
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Malformed cluster message: " + text);
+        }
+        try {
+            Long userId = parts[3].isEmpty() ? null : Long.valueOf(parts[3]);
+            return new ClusterMessage(Type.valueOf(parts[0]), parts[1], Long.parseLong(parts[2]), userId, parts[4]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cluster message: " + text);
+        }
+    }
+}
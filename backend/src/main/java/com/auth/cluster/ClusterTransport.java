@@ -0,0 +1,14 @@
+package com.auth.cluster;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+// Delivers encoded cluster messages to every node, including the sender
+public interface ClusterTransport {
+
+    void start(Consumer<byte[]> receiver) throws IOException;
+
+    void send(byte[] payload) throws IOException;
+
+    void close();
+}
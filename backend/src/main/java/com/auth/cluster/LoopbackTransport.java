@@ -0,0 +1,32 @@
+package com.auth.cluster;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// In-process transport: every LoopbackTransport in the JVM shares one bus.
+// Useful for running several application contexts side by side in tests.
+public class LoopbackTransport implements ClusterTransport {
+
+    private static final List<Consumer<byte[]>> BUS = new CopyOnWriteArrayList<>();
+
+    private Consumer<byte[]> receiver;
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        BUS.add(receiver);
+    }
+
+    @Override
+    public void send(byte[] payload) {
+        for (Consumer<byte[]> node : BUS) {
+            node.accept(payload.clone());
+        }
+    }
+
+    @Override
+    public void close() {
+        BUS.remove(receiver);
+    }
+}
@@ -0,0 +1,54 @@
+package com.auth.cluster;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+// HMAC-SHA256 over cluster payloads, so only nodes sharing the secret can send invalidations.
+// Signed payload: message bytes followed by the 32-byte MAC.
+public class MessageAuthenticator {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+
+    private final SecretKeySpec key;
+
+    public MessageAuthenticator(byte[] secret) {
+        if (secret.length < 16) {
+            throw new IllegalArgumentException("Cluster secret must be at least 16 bytes");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    public byte[] sign(byte[] message) {
+        byte[] mac = mac(message, message.length);
+        byte[] signed = Arrays.copyOf(message, message.length + MAC_LENGTH);
+        System.arraycopy(mac, 0, signed, message.length, MAC_LENGTH);
+        return signed;
+    }
+
+    // The message bytes when the MAC matches, otherwise null
+    public byte[] verify(byte[] signed) {
+        if (signed.length < MAC_LENGTH) {
+            return null;
+        }
+        int messageLength = signed.length - MAC_LENGTH;
+        byte[] expected = mac(signed, messageLength);
+        byte[] actual = Arrays.copyOfRange(signed, messageLength, signed.length);
+        // Constant-time comparison
+        return MessageDigest.isEqual(expected, actual) ? Arrays.copyOf(signed, messageLength) : null;
+    }
+
+    private byte[] mac(byte[] bytes, int length) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(bytes, 0, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+}
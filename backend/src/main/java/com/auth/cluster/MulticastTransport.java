@@ -0,0 +1,84 @@
+package com.auth.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// UDP multicast transport for nodes on the same network segment
+public class MulticastTransport implements ClusterTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(MulticastTransport.class);
+    private static final int MAX_PACKET_SIZE = 1024;
+
+    private final InetAddress group;
+    private final int port;
+    private final int timeToLive;
+    private final NetworkInterface networkInterface; // null for the system default
+    private MulticastSocket socket;
+    private Thread receiverThread;
+    private volatile boolean running;
+
+    public MulticastTransport(InetAddress group, int port, int timeToLive, NetworkInterface networkInterface) {
+        this.group = group;
+        this.port = port;
+        this.timeToLive = timeToLive;
+        this.networkInterface = networkInterface;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+        socket = new MulticastSocket(port);
+        socket.setTimeToLive(timeToLive);
+        if (networkInterface != null) {
+            socket.setNetworkInterface(networkInterface);
+        }
+        socket.joinGroup(new InetSocketAddress(group, port), networkInterface);
+        running = true;
+
+        receiverThread = new Thread(() -> {
+            byte[] buffer = new byte[MAX_PACKET_SIZE];
+            while (running) {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                try {
+                    socket.receive(packet);
+                    receiver.accept(Arrays.copyOf(packet.getData(), packet.getLength()));
+                } catch (IOException e) {
+                    if (running) {
+                        logger.error("Error receiving cluster message: {}", e.getMessage());
+                    }
+                }
+            }
+        }, "cluster-multicast-receiver");
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+    }
+
+    @Override
+    public void send(byte[] payload) throws IOException {
+        if (payload.length > MAX_PACKET_SIZE) {
+            throw new IOException("Cluster message exceeds " + MAX_PACKET_SIZE + " bytes");
+        }
+        socket.send(new DatagramPacket(payload, payload.length, group, port));
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (socket != null) {
+            try {
+                socket.leaveGroup(new InetSocketAddress(group, port), networkInterface);
+            } catch (IOException e) {
+                logger.warn("Error leaving multicast group: {}", e.getMessage());
+            }
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.auth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Training traffic for the class-data-sharing archive: before the app exits, send one request
+// through each main path (register, login, post, feeds, logout), so the classes loaded while
+// serving requests (security filters, Jackson, JPA queries) are archived too
+@Component
+@ConditionalOnProperty(name = "app.startup.exit-after-refresh", havingValue = "true")
+public class CdsTrainingRun implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CdsTrainingRun.class);
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    @Autowired
+    private WebServerApplicationContext webServerContext;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String baseUrl = "http://localhost:" + webServerContext.getWebServer().getPort();
+        String username = "cds-training-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+        String credentials = "{\"username\":\"" + username + "\",\"password\":\"training\"}";
+        try {
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/register")), "POST", credentials, null);
+            String login = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login")), "POST", credentials, null);
+            Matcher token = TOKEN.matcher(login);
+            if (!token.find()) {
+                logger.warn("CDS training: login failed, the archive will only cover startup");
+                return;
+            }
+            String jwt = token.group(1);
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/tweets")), "POST",
+                "{\"content\":\"Training tweet #cds @" + username + "\"}", jwt);
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/tweets?page=0&size=10")), "GET", null, jwt);
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/tweets/user/" + username)), "GET", null, jwt);
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/logout")), "POST", "", jwt);
+            logger.info("CDS training: served login and feed requests as {}", username);
+        } catch (Exception e) {
+            // Best effort: a partial run still produces a usable, smaller archive
+            logger.warn("CDS training requests failed: {}", e.getMessage());
+        }
+    }
+
+    private String send(HttpRequest.Builder request, String method, String body, String jwt) throws Exception {
+        request.header("Content-Type", "application/json")
+            .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (jwt != null) {
+            request.header("Authorization", "Bearer " + jwt);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        logger.debug("CDS training: {} {} -> {}", method, response.uri().getPath(), response.statusCode());
+        return response.body();
+    }
+}
@@ -1,20 +1,23 @@
 package com.auth.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 
 @Configuration
 public class JacksonConfig {
+    // Extends Boot's auto-configured ObjectMapper (spring.jackson.* and well-known modules still
+    // apply). The same mapper pre-serializes tweets, so cached bytes match normal responses.
     @Bean
-    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter() {
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        ObjectMapper mapper = converter.getObjectMapper();
-        Hibernate5Module hibernate5Module = new Hibernate5Module();
-        hibernate5Module.configure(Hibernate5Module.Feature.FORCE_LAZY_LOADING, false);
-        mapper.registerModule(hibernate5Module);
-        return converter;
+    public Jackson2ObjectMapperBuilderCustomizer jacksonModulesCustomizer() {
+        return builder -> builder.postConfigurer(mapper -> {
+            Hibernate5Module hibernate5Module = new Hibernate5Module();
+            hibernate5Module.configure(Hibernate5Module.Feature.FORCE_LAZY_LOADING, false);
+            mapper.registerModule(hibernate5Module);
+            // Generated accessors instead of reflection for getters, setters and constructors
+            mapper.registerModule(new BlackbirdModule());
+        });
     }
 }
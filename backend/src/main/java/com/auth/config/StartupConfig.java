@@ -0,0 +1,22 @@
+package com.auth.config;
+
+import com.auth.cluster.ClusterInvalidationService;
+import com.auth.storage.TweetArchiveService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    // Beans that do background work from @PostConstruct must start eagerly even with
+    // spring.main.lazy-initialization, otherwise nothing would ever trigger them
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBackgroundBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+            ClusterInvalidationService.class,
+            TweetArchiveService.class,
+            StartupMetrics.class
+        );
+    }
+}
@@ -0,0 +1,32 @@
+package com.auth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Startup timings measured from JVM start: until the context is ready, and until the
+// first successful login (which includes whatever lazy beans that request had to create)
+@Component
+public class StartupMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupMetrics.class);
+
+    private final AtomicBoolean firstLoginRecorded = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        logger.info("Startup: ready {} ms after JVM start", ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    public void recordSuccessfulLogin() {
+        if (firstLoginRecorded.compareAndSet(false, true)) {
+            logger.info("Startup: first successful login {} ms after JVM start",
+                ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+    }
+}
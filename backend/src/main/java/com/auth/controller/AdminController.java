@@ -0,0 +1,45 @@
+package com.auth.controller;
+
+import com.auth.service.UserImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Map;
+
+// Requires ROLE_ADMIN, enforced for /api/admin/** in SecurityConfig
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AdminController {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Value("${users.import.max-bytes:52428800}")
+    private long maxImportBytes;
+
+    // Bulk user import; send text/csv (username,password[,role]) or application/x-ndjson
+    @PostMapping("/users/import")
+    public ResponseEntity<?> importUsers(HttpServletRequest request) throws IOException {
+        // Declared sizes are rejected up front; chunked uploads are cut off while streaming
+        if (request.getContentLengthLong() > maxImportBytes) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(Map.of("error", "Import is limited to " + maxImportBytes + " bytes"));
+        }
+        String contentType = request.getContentType();
+        boolean csv = contentType != null && contentType.contains("csv");
+        UserImportService.ImportJob job = userImportService.importUsers(request.getInputStream(), csv, maxImportBytes);
+        return ResponseEntity.ok(job.toMap());
+    }
+
+    // Progress of running and recent imports
+    @GetMapping("/users/import/jobs")
+    public ResponseEntity<?> getImportJobs() {
+        return ResponseEntity.ok(userImportService.getJobs());
+    }
+}
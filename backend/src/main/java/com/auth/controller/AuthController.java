@@ -1,10 +1,14 @@
 package com.auth.controller;
 
+import com.auth.config.StartupMetrics;
 import com.auth.model.User;
+import com.auth.security.HashingOverloadedException;
 import com.auth.security.JwtUtil;
 import com.auth.service.AuthService;
 import com.auth.service.SessionManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
@@ -26,11 +30,16 @@ public class AuthController {
     @Autowired
     private SessionManager sessionManager;
 
+    @Autowired
+    private StartupMetrics startupMetrics;
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
         try {
             authService.register(user);
             return ResponseEntity.ok().body(Map.of("message", "User registered successfully"));
+        } catch (HashingOverloadedException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -44,14 +53,17 @@ public class AuthController {
         Optional<User> userOpt = authService.authenticate(username, password);
         
         if (userOpt.isPresent()) {
+            // The role goes into the token as ROLE_<role>, checked by the security config
+            String role = userOpt.get().getRole();
             UserDetails userDetails = org.springframework.security.core.userdetails.User
                 .withUsername(username)
                 .password("")
-                .authorities("USER")
+                .roles(role == null || role.isEmpty() ? "USER" : role)
                 .build();
 
             String token = jwtUtil.generateToken(userDetails);
             sessionManager.createSession(username, token);
+            startupMetrics.recordSuccessfulLogin();
 
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
@@ -72,4 +84,12 @@ public class AuthController {
         }
         return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
     }
+
+    // Login and registration shed load when the BCrypt pool is saturated
+    @ExceptionHandler(HashingOverloadedException.class)
+    public ResponseEntity<?> hashingOverloaded(HashingOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of("error", "Server busy, please retry"));
+    }
 }
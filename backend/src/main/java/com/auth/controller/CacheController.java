@@ -1,6 +1,10 @@
 package com.auth.controller;
 
 import com.auth.cache.CacheService;
+import com.auth.cache.HibernateCacheStats;
+import com.auth.cache.TweetJsonCache;
+import com.auth.cluster.ClusterInvalidationService;
+import com.auth.service.UsernameFilterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,8 +18,40 @@ public class CacheController {
     @Autowired
     private CacheService cacheService;
 
+    @Autowired
+    private HibernateCacheStats hibernateCacheStats;
+
+    @Autowired
+    private TweetJsonCache tweetJsonCache;
+
+    @Autowired
+    private ClusterInvalidationService clusterInvalidationService;
+
+    @Autowired
+    private UsernameFilterService usernameFilterService;
+
     @GetMapping("/stats")
     public Map<String, Object> getCacheStats() {
         return cacheService.getCacheStats();
     }
+
+    @GetMapping("/l2-stats")
+    public Map<String, Object> getSecondLevelCacheStats() {
+        return hibernateCacheStats.getRegionStats();
+    }
+
+    @GetMapping("/tweet-json")
+    public Map<String, Object> getTweetJsonCacheStats() {
+        return tweetJsonCache.getStats();
+    }
+
+    @GetMapping("/username-filter")
+    public Map<String, Object> getUsernameFilterStats() {
+        return usernameFilterService.getStats();
+    }
+
+    @GetMapping("/cluster")
+    public Map<String, Object> getClusterStats() {
+        return clusterInvalidationService.getStats();
+    }
 }
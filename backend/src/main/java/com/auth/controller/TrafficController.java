@@ -0,0 +1,30 @@
+package com.auth.controller;
+
+import com.auth.security.ConcurrencyLimitFilter;
+import com.auth.security.RateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/traffic")
+@CrossOrigin(origins = "http://localhost:3000")
+public class TrafficController {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @GetMapping("/rate-limit")
+    public Map<String, Object> getRateLimitStats() {
+        return rateLimiter.getStats();
+    }
+
+    @GetMapping("/concurrency")
+    public Map<String, Object> getConcurrencyStats() {
+        return concurrencyLimitFilter.getStats();
+    }
+}
@@ -0,0 +1,24 @@
+package com.auth.controller;
+
+import com.auth.service.TrendService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/trends")
+@CrossOrigin(origins = "http://localhost:3000")
+public class TrendController {
+
+    @Autowired
+    private TrendService trendService;
+
+    @GetMapping
+    public Map<String, Object> getTrends(@RequestParam(defaultValue = "10") int limit) {
+        if (limit > 50) {
+            limit = 50; // Limit maximum list size
+        }
+        return trendService.getTrends(limit);
+    }
+}
@@ -1,14 +1,22 @@
 package com.auth.controller;
 
+import com.auth.cache.TweetJsonCache;
 import com.auth.model.Tweet;
 import com.auth.service.TweetService;
+import com.auth.storage.ShardedTweetStore;
+import com.auth.storage.TweetArchiveService;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -19,17 +27,46 @@ public class TweetController {
     @Autowired
     private TweetService tweetService;
 
+    @Autowired
+    private TweetJsonCache tweetJsonCache;
+
+    @Autowired
+    private TweetArchiveService tweetArchiveService;
+
+    @Autowired
+    private ShardedTweetStore shardedTweetStore;
+
     @Data
     public static class TweetRequest {
         private String content;
     }
 
+    // Feed pages are written straight from pre-serialized tweet bytes
     @GetMapping
-    public ResponseEntity<Page<Tweet>> getTweets(
+    public void getTweets(
         @RequestParam(defaultValue = "0") int page,
-        @RequestParam(defaultValue = "10") int size
-    ) {
-        return ResponseEntity.ok(tweetService.getTweets(page, size));
+        @RequestParam(defaultValue = "10") int size,
+        HttpServletResponse response
+    ) throws IOException {
+        Page<Tweet> tweets;
+        try {
+            tweets = tweetService.getTweets(page, size);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        tweetJsonCache.writePage(tweets, response.getOutputStream());
+    }
+
+    @GetMapping("/archive")
+    public Map<String, Object> getArchiveStats() {
+        return tweetArchiveService.getStats();
+    }
+
+    @GetMapping("/shards")
+    public Map<String, Object> getShardStats() {
+        return shardedTweetStore.getStats();
     }
 
     @PostMapping
@@ -66,4 +103,19 @@ public class TweetController {
                 .body(Map.of("error", e.getMessage()));
         }
     }
+
+    @GetMapping("/authors")
+    public ResponseEntity<?> getAuthorsTweets(
+        @RequestParam List<String> usernames,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "10") int size
+    ) {
+        try {
+            Page<Tweet> tweets = tweetService.getAuthorsTweets(usernames, page, size);
+            return ResponseEntity.ok(tweets);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
 }
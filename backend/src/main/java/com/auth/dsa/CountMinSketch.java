@@ -0,0 +1,46 @@
+package com.auth.dsa;
+
+import java.util.Arrays;
+
+// Count-Min sketch: fixed-size frequency estimates that never under-count.
+// Error is at most 2N/width with probability 1 - (1/2)^depth for N total increments.
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[][] counts;
+
+    public CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        this.width = width;
+        this.counts = new long[depth][width];
+    }
+
+    public void add(String key, long count) {
+        long[] hashes = Hashing.twoHashes(key);
+        for (int row = 0; row < depth; row++) {
+            counts[row][index(hashes, row)] += count;
+        }
+    }
+
+    public long estimate(String key) {
+        long[] hashes = Hashing.twoHashes(key);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[row][index(hashes, row)]);
+        }
+        return min;
+    }
+
+    public void clear() {
+        for (long[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    // Kirsch-Mitzenmacher double hashing: each row gets its own column from two 64-bit hashes,
+    // so keys colliding in one row are unlikely to collide in the others
+    private int index(long[] hashes, int row) {
+        return (int) (((hashes[0] + row * hashes[1]) & Long.MAX_VALUE) % width);
+    }
+}
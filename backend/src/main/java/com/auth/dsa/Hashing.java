@@ -0,0 +1,32 @@
+package com.auth.dsa;
+
+import java.nio.charset.StandardCharsets;
+
+// Hashing shared by the probabilistic structures in this package
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    // Two independent 64-bit FNV-1a style hashes of the UTF-8 key, finalized with the murmur3
+    // fmix64 step. The second one is odd, so it can serve as the stride of double hashing.
+    static long[] twoHashes(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash1 = 0xcbf29ce484222325L;
+        long hash2 = 0x84222325cbf29ce4L;
+        for (byte b : bytes) {
+            hash1 = (hash1 ^ (b & 0xff)) * 0x100000001b3L;
+            hash2 = (hash2 ^ (b & 0xff)) * 0x9E3779B97F4A7C15L;
+        }
+        return new long[] {fmix64(hash1), fmix64(hash2) | 1};
+    }
+
+    private static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
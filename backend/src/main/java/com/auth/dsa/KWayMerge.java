@@ -0,0 +1,52 @@
+package com.auth.dsa;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Merges k individually sorted sources with a min-heap of their current heads:
+// O((skip + limit) log k) comparisons, and each source is only read as far as needed.
+public final class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    private static final class Head<T> {
+        private final T value;
+        private final Iterator<? extends T> rest;
+
+        Head(T value, Iterator<? extends T> rest) {
+            this.value = value;
+            this.rest = rest;
+        }
+    }
+
+    // Elements at positions [skip, skip + limit) of the merged order
+    public static <T> List<T> merge(List<? extends Iterable<? extends T>> sources, Comparator<? super T> order,
+                                    long skip, int limit) {
+        PriorityQueue<Head<T>> heap = new PriorityQueue<>(Math.max(1, sources.size()),
+            (a, b) -> order.compare(a.value, b.value));
+        for (Iterable<? extends T> source : sources) {
+            Iterator<? extends T> iterator = source.iterator();
+            if (iterator.hasNext()) {
+                heap.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+
+        List<T> merged = new ArrayList<>(limit);
+        while (!heap.isEmpty() && merged.size() < limit) {
+            Head<T> head = heap.poll();
+            if (skip > 0) {
+                skip--;
+            } else {
+                merged.add(head.value);
+            }
+            if (head.rest.hasNext()) {
+                heap.add(new Head<>(head.rest.next(), head.rest));
+            }
+        }
+        return merged;
+    }
+}
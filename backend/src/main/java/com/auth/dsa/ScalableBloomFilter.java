@@ -0,0 +1,104 @@
+package com.auth.dsa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Bloom filter that grows by adding layers: when the newest layer is full, a larger one
+// with a tighter error rate is added, so the overall false positive rate stays bounded.
+// mightContain never returns false for an added key.
+public class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    // One fixed-size Bloom filter
+    private static final class Layer {
+        final long[] bits;
+        final int bitCount;
+        final int hashCount;
+        final int capacity;
+        int size = 0;
+
+        Layer(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            double ln2 = Math.log(2);
+            this.bitCount = (int) Math.max(64, Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2)));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+            this.bits = new long[(bitCount + 63) / 64];
+        }
+
+        void add(long hash1, long hash2) {
+            for (int i = 0; i < hashCount; i++) {
+                int bit = bitIndex(hash1, hash2, i);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+            size++;
+        }
+
+        boolean mightContain(long hash1, long hash2) {
+            for (int i = 0; i < hashCount; i++) {
+                int bit = bitIndex(hash1, hash2, i);
+                if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Kirsch-Mitzenmacher double hashing
+        private int bitIndex(long hash1, long hash2, int i) {
+            return (int) (((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount);
+        }
+    }
+
+    private final List<Layer> layers = new ArrayList<>();
+    private double nextFalsePositiveRate;
+
+    public ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+        // The first layer gets half the budget; the tightening series then sums to the target rate
+        this.nextFalsePositiveRate = falsePositiveRate * (1 - TIGHTENING_RATIO);
+        addLayer(initialCapacity);
+    }
+
+    public synchronized void add(String key) {
+        long[] hashes = Hashing.twoHashes(key);
+        Layer current = layers.get(layers.size() - 1);
+        if (current.size >= current.capacity) {
+            current = addLayer(current.capacity * GROWTH_FACTOR);
+        }
+        current.add(hashes[0], hashes[1]);
+    }
+
+    public synchronized boolean mightContain(String key) {
+        long[] hashes = Hashing.twoHashes(key);
+        for (Layer layer : layers) {
+            if (layer.mightContain(hashes[0], hashes[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized long approximateSize() {
+        long size = 0;
+        for (Layer layer : layers) {
+            size += layer.size;
+        }
+        return size;
+    }
+
+    public synchronized long memoryBytes() {
+        long bytes = 0;
+        for (Layer layer : layers) {
+            bytes += layer.bits.length * 8L;
+        }
+        return bytes;
+    }
+
+    private Layer addLayer(int capacity) {
+        Layer layer = new Layer(capacity, nextFalsePositiveRate);
+        nextFalsePositiveRate *= TIGHTENING_RATIO;
+        layers.add(layer);
+        return layer;
+    }
+}
@@ -0,0 +1,88 @@
+package com.auth.dsa;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Space-Saving heavy hitters: tracks at most capacity keys. When full, a new key
+// replaces the key with the smallest count and inherits that count as its error,
+// so any key with frequency above N/capacity is guaranteed to be tracked.
+public class SpaceSaving {
+
+    // A tracked key with its (over-)estimated count
+    public static final class Counter {
+        private final String key;
+        private long count;
+        private long error;
+
+        Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void offer(String key, long increment) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += increment;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(key, increment, 0));
+            return;
+        }
+        Counter min = null;
+        for (Counter candidate : counters.values()) {
+            if (min == null || candidate.count < min.count) {
+                min = candidate;
+            }
+        }
+        counters.remove(min.key);
+        counters.put(key, new Counter(key, min.count + increment, min.count));
+    }
+
+    // The n tracked keys with the highest counts, highest first
+    public List<Counter> top(int n) {
+        List<Counter> sorted = new ArrayList<>(counters.values());
+        sorted.sort((a, b) -> Long.compare(b.count, a.count));
+        return sorted.subList(0, Math.min(n, sorted.size()));
+    }
+
+    // Scale every count down, dropping keys that reach zero, so old activity fades out
+    public void decay(double factor) {
+        counters.values().removeIf(counter -> {
+            counter.count = (long) (counter.count * factor);
+            counter.error = (long) (counter.error * factor);
+            return counter.count == 0;
+        });
+    }
+
+    public List<String> keys() {
+        return new ArrayList<>(counters.keySet());
+    }
+
+    public void clear() {
+        counters.clear();
+    }
+}
@@ -0,0 +1,84 @@
+package com.auth.dsa;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Sliding-window top-k over a stream of keys. The window is a ring of time buckets, each
+// with its own Count-Min sketch and Space-Saving summary; expired buckets are reset on reuse.
+// Memory is fixed by the constructor arguments, whatever the stream length.
+public class WindowedHeavyHitters {
+
+    // A key and its estimated count over the window
+    public static final class Entry {
+        private final String key;
+        private final long count;
+
+        Entry(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    private final long bucketMillis;
+    private final CountMinSketch[] sketches;
+    private final SpaceSaving[] summaries;
+    private final long[] bucketIds; // Time bucket currently stored in each ring slot
+
+    public WindowedHeavyHitters(int buckets, long bucketMillis, int sketchDepth, int sketchWidth, int topK) {
+        this.bucketMillis = bucketMillis;
+        this.sketches = new CountMinSketch[buckets];
+        this.summaries = new SpaceSaving[buckets];
+        this.bucketIds = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            sketches[i] = new CountMinSketch(sketchDepth, sketchWidth);
+            summaries[i] = new SpaceSaving(topK);
+            bucketIds[i] = -1;
+        }
+    }
+
+    public synchronized void record(String key, long nowMillis) {
+        long bucketId = nowMillis / bucketMillis;
+        int slot = (int) (bucketId % bucketIds.length);
+        if (bucketIds[slot] != bucketId) {
+            sketches[slot].clear();
+            summaries[slot].clear();
+            bucketIds[slot] = bucketId;
+        }
+        sketches[slot].add(key, 1);
+        summaries[slot].offer(key, 1);
+    }
+
+    // Candidates come from every live bucket's summary; counts are summed sketch estimates
+    public synchronized List<Entry> top(int n, long nowMillis) {
+        long currentBucket = nowMillis / bucketMillis;
+        List<Integer> liveSlots = new ArrayList<>();
+        Set<String> candidates = new HashSet<>();
+        for (int slot = 0; slot < bucketIds.length; slot++) {
+            if (bucketIds[slot] >= 0 && currentBucket - bucketIds[slot] < bucketIds.length) {
+                liveSlots.add(slot);
+                candidates.addAll(summaries[slot].keys());
+            }
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        for (String key : candidates) {
+            long count = 0;
+            for (int slot : liveSlots) {
+                count += sketches[slot].estimate(key);
+            }
+            entries.add(new Entry(key, count));
+        }
+        entries.sort((a, b) -> Long.compare(b.count, a.count));
+        return entries.subList(0, Math.min(n, entries.size()));
+    }
+}
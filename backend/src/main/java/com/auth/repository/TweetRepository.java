@@ -4,10 +4,32 @@ import com.auth.model.Tweet;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TweetRepository extends JpaRepository<Tweet, Long> {
     Page<Tweet> findByUserUsername(String username, Pageable pageable);
     Page<Tweet> findAllByOrderByTimestampDesc(Pageable pageable);
+    Page<Tweet> findByUserUsernameOrderByTimestampDesc(String username, Pageable pageable);
+    Page<Tweet> findByUserUsernameInOrderByTimestampDescIdDesc(Collection<String> usernames, Pageable pageable);
+
+    // Oldest tweets first, for compaction into archive segments
+    List<Tweet> findByTimestampBeforeOrderByTimestampAscIdAsc(LocalDateTime cutoff, Pageable pageable);
+
+    // Same feed query, but results are kept in the "tweet-feed" query cache region.
+    // Hibernate invalidates the region whenever the tweet table is written to.
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "tweet-feed")
+    })
+    @Query(value = "select t from Tweet t order by t.timestamp desc",
+           countQuery = "select count(t) from Tweet t")
+    Page<Tweet> findRecentFeedPage(Pageable pageable);
 }
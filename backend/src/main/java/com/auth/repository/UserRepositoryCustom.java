@@ -0,0 +1,10 @@
+package com.auth.repository;
+
+import com.auth.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    // Looks the user up by natural id so the "users-by-username" cache region is used
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,128 @@
+package com.auth.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Sheds load with a fast 503 once a route's adaptive concurrency limit is reached,
+// instead of letting requests queue in Tomcat behind a saturated database or BCrypt
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private AdaptiveConcurrencyLimiter loginLimiter;
+    private AdaptiveConcurrencyLimiter feedReadLimiter;
+    private AdaptiveConcurrencyLimiter tweetWriteLimiter;
+
+    @Value("${concurrency-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${concurrency-limit.login.initial:20}")
+    private int loginInitial;
+
+    @Value("${concurrency-limit.login.max:100}")
+    private int loginMax;
+
+    @Value("${concurrency-limit.login.target-latency-ms:500}")
+    private long loginTargetMs;
+
+    @Value("${concurrency-limit.feed-read.initial:50}")
+    private int feedReadInitial;
+
+    @Value("${concurrency-limit.feed-read.max:200}")
+    private int feedReadMax;
+
+    @Value("${concurrency-limit.feed-read.target-latency-ms:100}")
+    private long feedReadTargetMs;
+
+    @Value("${concurrency-limit.tweet-write.initial:20}")
+    private int tweetWriteInitial;
+
+    @Value("${concurrency-limit.tweet-write.max:100}")
+    private int tweetWriteMax;
+
+    @Value("${concurrency-limit.tweet-write.target-latency-ms:200}")
+    private long tweetWriteTargetMs;
+
+    @Value("${concurrency-limit.min:2}")
+    private int minLimit;
+
+    @PostConstruct
+    public void init() {
+        loginLimiter = new AdaptiveConcurrencyLimiter("login", loginInitial, minLimit, loginMax,
+            TimeUnit.MILLISECONDS.toNanos(loginTargetMs), BACKOFF_RATIO);
+        feedReadLimiter = new AdaptiveConcurrencyLimiter("feed-read", feedReadInitial, minLimit, feedReadMax,
+            TimeUnit.MILLISECONDS.toNanos(feedReadTargetMs), BACKOFF_RATIO);
+        tweetWriteLimiter = new AdaptiveConcurrencyLimiter("tweet-write", tweetWriteInitial, minLimit, tweetWriteMax,
+            TimeUnit.MILLISECONDS.toNanos(tweetWriteTargetMs), BACKOFF_RATIO);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request.getMethod(), request.getRequestURI());
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            logger.warn("Shedding {} request, concurrency limit reached", limiter.getName());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Server busy, please retry\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long now = System.nanoTime();
+            limiter.release(now - start, now);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put(loginLimiter.getName(), loginLimiter.getStats());
+        stats.put(feedReadLimiter.getName(), feedReadLimiter.getStats());
+        stats.put(tweetWriteLimiter.getName(), tweetWriteLimiter.getStats());
+        return stats;
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String method, String uri) {
+        if (!enabled) {
+            return null;
+        }
+        if ("POST".equals(method) && uri.equals("/api/auth/login")) {
+            return loginLimiter;
+        }
+        if (uri.equals("/api/tweets") || uri.startsWith("/api/tweets/")) {
+            if ("GET".equals(method)) {
+                return feedReadLimiter;
+            }
+            if ("POST".equals(method)) {
+                return tweetWriteLimiter;
+            }
+        }
+        return null;
+    }
+}
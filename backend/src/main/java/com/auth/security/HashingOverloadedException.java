@@ -0,0 +1,9 @@
+package com.auth.security;
+
+// Thrown when the password hashing pool cannot take or finish a task in time; mapped to 503
+public class HashingOverloadedException extends RuntimeException {
+
+    public HashingOverloadedException(String message) {
+        super(message);
+    }
+}
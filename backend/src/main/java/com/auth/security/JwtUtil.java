@@ -7,26 +7,53 @@ import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
     private String SECRET_KEY = "your_secret_key_here";
-    private int TOKEN_VALIDITY = 3600 * 5; // 5 hours
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
+    private static final String AUTHORITIES_CLAIM = "authorities";
+
+    // Same property SessionManager keeps revocations for
+    @Value("${jwt.expiration:18000}")
+    private long tokenValiditySeconds;
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    public Date extractIssuedAt(String token) {
+        return extractClaim(token, Claims::getIssuedAt);
+    }
+
+    // Authorities granted at login; tokens without the claim carry none
+    public List<GrantedAuthority> extractAuthorities(String token) {
+        List<?> names = extractClaim(token, claims -> claims.get(AUTHORITIES_CLAIM, List.class));
+        if (names == null) {
+            return Collections.emptyList();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(names.size());
+        for (Object name : names) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(name)));
+        }
+        return authorities;
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
@@ -46,6 +73,11 @@ public class JwtUtil {
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        List<String> authorities = new ArrayList<>();
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        claims.put(AUTHORITIES_CLAIM, authorities);
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -54,7 +86,7 @@ public class JwtUtil {
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY * 1000))
+                .setExpiration(new Date(System.currentTimeMillis() + tokenValiditySeconds * 1000))
                 .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
                 .compact();
     }
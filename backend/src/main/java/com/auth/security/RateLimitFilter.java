@@ -0,0 +1,59 @@
+package com.auth.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        RateLimiter.Rule rule = rateLimiter.ruleFor(request.getMethod(), request.getRequestURI());
+        if (rule == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // Public auth routes are keyed by client IP, everything else by the JWT username.
+        // Behind a proxy, server.forward-headers-strategy makes getRemoteAddr() the original
+        // client from X-Forwarded-For, as long as the proxy is in the trusted internal-proxies list.
+        String principal = "ip:" + request.getRemoteAddr();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!request.getRequestURI().startsWith("/api/auth/") && authentication != null) {
+            principal = "user:" + authentication.getName();
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(rule, principal);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            logger.warn("Rate limit exceeded on {} for {}", rule.getRoute(), principal);
+            response.setStatus(SC_TOO_MANY_REQUESTS);
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Too many requests\"}");
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+}
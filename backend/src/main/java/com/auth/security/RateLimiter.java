@@ -0,0 +1,145 @@
+package com.auth.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-route, per-principal token buckets
+@Component
+public class RateLimiter {
+
+    // Limit applied to one route
+    public static final class Rule {
+        private final String route;
+        private final double capacity;
+        private final double refillPerSecond;
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        Rule(String route, double capacity, double refillPerSecond) {
+            // Fail at startup rather than on the first request (the wait time divides by the rate)
+            if (capacity < 1 || !(refillPerSecond > 0)) {
+                throw new IllegalStateException("rate-limit." + route
+                    + " needs capacity >= 1 and refill-per-second > 0");
+            }
+            this.route = route;
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+    }
+
+    private final Map<String, Rule> rules = new LinkedHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.idle-timeout-seconds:600}")
+    private long idleTimeoutSeconds;
+
+    @Value("${rate-limit.login.capacity:10}")
+    private double loginCapacity;
+
+    @Value("${rate-limit.login.refill-per-second:0.2}")
+    private double loginRefill;
+
+    @Value("${rate-limit.register.capacity:5}")
+    private double registerCapacity;
+
+    @Value("${rate-limit.register.refill-per-second:0.1}")
+    private double registerRefill;
+
+    @Value("${rate-limit.tweets-read.capacity:60}")
+    private double tweetsReadCapacity;
+
+    @Value("${rate-limit.tweets-read.refill-per-second:5}")
+    private double tweetsReadRefill;
+
+    @Value("${rate-limit.tweets-write.capacity:20}")
+    private double tweetsWriteCapacity;
+
+    @Value("${rate-limit.tweets-write.refill-per-second:0.5}")
+    private double tweetsWriteRefill;
+
+    @PostConstruct
+    public void init() {
+        addRule(new Rule("login", loginCapacity, loginRefill));
+        addRule(new Rule("register", registerCapacity, registerRefill));
+        addRule(new Rule("tweets-read", tweetsReadCapacity, tweetsReadRefill));
+        addRule(new Rule("tweets-write", tweetsWriteCapacity, tweetsWriteRefill));
+    }
+
+    private void addRule(Rule rule) {
+        rules.put(rule.route, rule);
+    }
+
+    // Rule for a request, or null when the route is not limited
+    public Rule ruleFor(String method, String uri) {
+        if (!enabled) {
+            return null;
+        }
+        if ("POST".equals(method) && uri.equals("/api/auth/login")) {
+            return rules.get("login");
+        }
+        if ("POST".equals(method) && uri.equals("/api/auth/register")) {
+            return rules.get("register");
+        }
+        if (uri.equals("/api/tweets") || uri.startsWith("/api/tweets/")) {
+            return rules.get("POST".equals(method) ? "tweets-write" : "tweets-read");
+        }
+        return null;
+    }
+
+    // Take a token for the principal. Returns 0 when allowed, otherwise the nanos to wait.
+    public long tryAcquire(Rule rule, String principal) {
+        long now = System.nanoTime();
+        sweepIdleBuckets(now);
+        TokenBucket bucket = buckets.computeIfAbsent(rule.route + ":" + principal,
+            key -> new TokenBucket(rule.capacity, rule.refillPerSecond, now));
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos == 0) {
+            rule.allowed.increment();
+        } else {
+            rule.rejected.increment();
+        }
+        return waitNanos;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("activeBuckets", buckets.size());
+        for (Rule rule : rules.values()) {
+            Map<String, Object> routeStats = new HashMap<>();
+            routeStats.put("capacity", rule.capacity);
+            routeStats.put("refillPerSecond", rule.refillPerSecond);
+            routeStats.put("allowed", rule.allowed.sum());
+            routeStats.put("rejected", rule.rejected.sum());
+            stats.put(rule.route, routeStats);
+        }
+        return stats;
+    }
+
+    // At most once per idle timeout, drop buckets nobody has used for that long
+    private void sweepIdleBuckets(long now) {
+        long idleNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        long lastSweep = lastSweepNanos.get();
+        if (now - lastSweep < idleNanos || !lastSweepNanos.compareAndSet(lastSweep, now)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> now - bucket.lastUsedNanos() > idleNanos);
+    }
+}
@@ -0,0 +1,51 @@
+package com.auth.security;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Lock-free token bucket: the whole state is swapped atomically with compare-and-set
+public class TokenBucket {
+
+    private static final class State {
+        final double tokens;
+        final long updatedNanos;
+
+        State(double tokens, long updatedNanos) {
+            this.tokens = tokens;
+            this.updatedNanos = updatedNanos;
+        }
+    }
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || !(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("Token bucket needs capacity >= 1 and a positive refill rate");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    // Take one token. Returns 0 when allowed, otherwise the nanos until a token is available.
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double refilled = Math.min(capacity,
+                current.tokens + Math.max(0, nowNanos - current.updatedNanos) * tokensPerNano);
+            if (refilled < 1) {
+                // Record the refill so idle tracking sees the attempt
+                if (state.compareAndSet(current, new State(refilled, nowNanos))) {
+                    return (long) Math.ceil((1 - refilled) / tokensPerNano);
+                }
+            } else if (state.compareAndSet(current, new State(refilled - 1, nowNanos))) {
+                return 0;
+            }
+        }
+    }
+
+    public long lastUsedNanos() {
+        return state.get().updatedNanos;
+    }
+}
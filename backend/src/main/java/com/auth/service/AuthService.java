@@ -1,9 +1,11 @@
 package com.auth.service;
 
 import com.auth.cache.CacheService;
+import com.auth.cluster.ClusterInvalidationService;
 import com.auth.model.User;
 import com.auth.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -28,17 +30,25 @@ public class AuthService {
     @Autowired
     private CacheService cacheService; // Inject CacheService
 
+    @Autowired
+    private ClusterInvalidationService clusterInvalidationService;
+
+    @Autowired
+    private UsernameFilterService usernameFilterService;
+
     // Register a new user
     public User register(User user) {
         logger.info("Registering user with username: {}", user.getUsername());
 
         // Validate email format
-        if (!user.getUsername().matches("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$")) {
+        if (!UsernameValidator.isValid(user.getUsername())) {
             logger.warn("Registration failed: Invalid email format for username: {}", user.getUsername());
             throw new RuntimeException("Username must be a valid email address");
         }
 
-        if (userRepository.existsByUsername(user.getUsername())) {
+        // Only ask the database when the filter cannot rule the username out
+        if (usernameFilterService.mightExist(user.getUsername())
+                && userRepository.existsByUsername(user.getUsername())) {
             logger.warn("Registration failed: Username {} already exists", user.getUsername());
             throw new RuntimeException("Username already exists");
         }
@@ -49,18 +59,25 @@ public class AuthService {
             throw new RuntimeException("Password cannot be empty");
         }
 
-        // Set default role if not specified
-        if (user.getRole() == null || user.getRole().isEmpty()) {
-            user.setRole("USER");
-        }
+        // Self-registration always creates a regular user; roles are granted by an admin import
+        user.setRole("USER");
 
         // Encrypt password before storing
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Unique constraint on username: a concurrent registration won the race
+            logger.warn("Registration failed: Username {} already exists", user.getUsername());
+            throw new RuntimeException("Username already exists");
+        }
+        usernameFilterService.add(savedUser.getUsername());
 
         // Add the new user to the cache
         cacheService.addUserToCache(savedUser);
         logger.info("User {} added to the cache after registration", user.getUsername());
+        clusterInvalidationService.publishUserUpsert(savedUser.getUsername());
 
         return savedUser;
     }
@@ -111,6 +128,7 @@ public class AuthService {
     public void logout(String username) {
         logger.info("Logging out user with username: {}", username);
         sessionManager.invalidateSession(username);
+        clusterInvalidationService.publishSessionRevoked(username);
         logger.info("User {} logged out and session invalidated", username);
     }
 
@@ -1,13 +1,22 @@
 package com.auth.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.util.HashMap;
+import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class SessionManager {
-    private final Map<String, String> sessions = new HashMap<>();
+    // Concurrent because cluster invalidations arrive on a transport thread
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+    // Per user: tokens issued before this time (epoch millis) are revoked. Unlike the session
+    // map this works on every node, since a token issued elsewhere has no local session.
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    @Value("${jwt.expiration:18000}")
+    private long tokenValiditySeconds;
 
     public void createSession(String username, String token) {
         sessions.put(username, token);
@@ -19,6 +28,16 @@ public class SessionManager {
 
     public void invalidateSession(String username) {
         sessions.remove(username);
+        long now = System.currentTimeMillis();
+        // JWT issue times have second precision; a token issued in the same second stays valid
+        revokedBefore.put(username, now - now % 1000);
+        // Revocations older than the token lifetime can no longer match a valid token
+        revokedBefore.values().removeIf(revokedAt -> revokedAt < now - tokenValiditySeconds * 1000);
+    }
+
+    public boolean isRevoked(String username, Date issuedAt) {
+        Long revokedAt = revokedBefore.get(username);
+        return revokedAt != null && (issuedAt == null || issuedAt.getTime() < revokedAt);
     }
 
     public boolean isSessionValid(String username, String token) {
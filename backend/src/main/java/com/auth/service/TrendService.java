@@ -0,0 +1,77 @@
+package com.auth.service;
+
+import com.auth.dsa.WindowedHeavyHitters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class TrendService {
+
+    private static final Pattern HASHTAG = Pattern.compile("(?<![\\w#])#(\\w+)");
+    // Usernames are email addresses, so "@alice@example.com" mentions alice@example.com
+    private static final Pattern MENTION = Pattern.compile("(?<![\\w.@])@([\\w.+-]*\\w(?:@[\\w-]+(?:\\.[\\w-]+)+)?)");
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 2048;
+
+    private WindowedHeavyHitters hashtags;
+    private WindowedHeavyHitters mentions;
+
+    @Value("${trends.window-minutes:60}")
+    private int windowMinutes;
+
+    @Value("${trends.buckets:12}")
+    private int buckets;
+
+    @Value("${trends.top-k:50}")
+    private int topK;
+
+    @PostConstruct
+    public void init() {
+        long bucketMillis = TimeUnit.MINUTES.toMillis(windowMinutes) / buckets;
+        hashtags = new WindowedHeavyHitters(buckets, bucketMillis, SKETCH_DEPTH, SKETCH_WIDTH, topK);
+        mentions = new WindowedHeavyHitters(buckets, bucketMillis, SKETCH_DEPTH, SKETCH_WIDTH, topK);
+    }
+
+    // Feed the hashtags and mentions of a new tweet into the trend windows
+    public void recordTweet(String content) {
+        long now = System.currentTimeMillis();
+        Matcher hashtagMatcher = HASHTAG.matcher(content);
+        while (hashtagMatcher.find()) {
+            hashtags.record(hashtagMatcher.group(1).toLowerCase(Locale.ROOT), now);
+        }
+        Matcher mentionMatcher = MENTION.matcher(content);
+        while (mentionMatcher.find()) {
+            mentions.record(mentionMatcher.group(1).toLowerCase(Locale.ROOT), now);
+        }
+    }
+
+    public Map<String, Object> getTrends(int limit) {
+        long now = System.currentTimeMillis();
+        Map<String, Object> trends = new HashMap<>();
+        trends.put("hashtags", toList(hashtags.top(limit, now), "tag"));
+        trends.put("mentions", toList(mentions.top(limit, now), "username"));
+        trends.put("windowMinutes", windowMinutes);
+        return trends;
+    }
+
+    private List<Map<String, Object>> toList(List<WindowedHeavyHitters.Entry> entries, String keyName) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (WindowedHeavyHitters.Entry entry : entries) {
+            Map<String, Object> item = new HashMap<>();
+            item.put(keyName, entry.getKey());
+            item.put("count", entry.getCount());
+            list.add(item);
+        }
+        return list;
+    }
+}
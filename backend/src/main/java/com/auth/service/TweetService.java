@@ -1,14 +1,25 @@
 package com.auth.service;
 
+import com.auth.cache.TweetJsonCache;
+import com.auth.cluster.ClusterInvalidationService;
+import com.auth.dsa.KWayMerge;
 import com.auth.model.Tweet;
 import com.auth.model.User;
 import com.auth.repository.TweetRepository;
 import com.auth.repository.UserRepository;
+import com.auth.storage.ShardedTweetStore;
+import com.auth.storage.TweetArchiveService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class TweetService {
@@ -18,6 +29,24 @@ public class TweetService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TweetJsonCache tweetJsonCache;
+
+    @Autowired
+    private TrendService trendService;
+
+    @Autowired
+    private TweetArchiveService tweetArchiveService;
+
+    @Autowired
+    private ShardedTweetStore shardedTweetStore;
+
+    @Autowired
+    private ClusterInvalidationService clusterInvalidationService;
+
+    @Value("${tweets.feed.cached-pages:3}")
+    private int feedCachedPages;
+
     public Tweet createTweet(String content, String username) {
         if (content == null || content.trim().isEmpty()) {
             throw new IllegalArgumentException("Tweet content cannot be empty");
@@ -34,25 +63,127 @@ public class TweetService {
         tweet.setTimestamp(LocalDateTime.now());
         tweet.setUser(user);
 
-        return tweetRepository.save(tweet);
+        Tweet savedTweet;
+        if (shardedTweetStore.isEnabled()) {
+            savedTweet = shardedTweetStore.save(tweet);
+        } else {
+            savedTweet = tweetRepository.save(tweet);
+            // Other nodes' feed query caches don't see this insert
+            clusterInvalidationService.publishTweetCreated();
+        }
+        tweetJsonCache.put(savedTweet);
+        trendService.recordTweet(savedTweet.getContent());
+        return savedTweet;
     }
 
     public Page<Tweet> getUserTweets(String username, int page, int size) {
         if (size > 50) {
             size = 50; // Limit maximum page size
         }
-        return tweetRepository.findByUserUsername(
-            username,
-            PageRequest.of(page, size)
-        );
+        if (shardedTweetStore.isEnabled()) {
+            List<User> author = userRepository.findByUsername(username)
+                .map(Collections::singletonList)
+                .orElse(Collections.emptyList());
+            return getShardedAuthorsPage(author, page, size);
+        }
+        if (!tweetArchiveService.isEnabled()) {
+            return tweetRepository.findByUserUsername(
+                username,
+                PageRequest.of(page, size)
+            );
+        }
+        int pageSize = size;
+        return tweetArchiveService.readConsistent(() -> {
+            Page<Tweet> hot = tweetRepository.findByUserUsernameOrderByTimestampDesc(
+                username, PageRequest.of(page, pageSize));
+            List<Tweet> content = new ArrayList<>(hot.getContent());
+            if (content.size() < pageSize) {
+                // Past the database rows: continue in the archive where they left off
+                long skip = Math.max(0, (long) page * pageSize - hot.getTotalElements());
+                content.addAll(tweetArchiveService.readArchivedByUser(username, skip, pageSize - content.size()));
+            }
+            return new PageImpl<>(content, PageRequest.of(page, pageSize),
+                hot.getTotalElements() + tweetArchiveService.countArchivedByUser(username));
+        });
     }
 
     public Page<Tweet> getTweets(int page, int size) {
         if (size > 50) {
             size = 50; // Limit maximum page size
         }
+        if (shardedTweetStore.isEnabled()) {
+            return new PageImpl<>(shardedTweetStore.findFeed((long) page * size, size),
+                PageRequest.of(page, size), shardedTweetStore.count());
+        }
+        if (!tweetArchiveService.isEnabled()) {
+            return getHotTweets(page, size);
+        }
+        int pageSize = size;
+        return tweetArchiveService.readConsistent(() -> {
+            Page<Tweet> hot = getHotTweets(page, pageSize);
+            // Deep pages run past the database rows into the archive segments
+            List<Tweet> content = new ArrayList<>(hot.getContent());
+            if (content.size() < pageSize) {
+                long skip = Math.max(0, (long) page * pageSize - hot.getTotalElements());
+                content.addAll(tweetArchiveService.readArchived(skip, pageSize - content.size()));
+            }
+            return new PageImpl<>(content, PageRequest.of(page, pageSize),
+                hot.getTotalElements() + tweetArchiveService.getArchivedCount());
+        });
+    }
+
+    // The first few pages are what pollers hit, so only those go through the query cache
+    private Page<Tweet> getHotTweets(int page, int size) {
+        if (page < feedCachedPages) {
+            return tweetRepository.findRecentFeedPage(PageRequest.of(page, size));
+        }
         return tweetRepository.findAllByOrderByTimestampDesc(
             PageRequest.of(page, size)
         );
     }
-}
\ No newline at end of file
+
+    // Newest-first tweets of several authors merged into one feed
+    public Page<Tweet> getAuthorsTweets(List<String> usernames, int page, int size) {
+        if (usernames.size() > 100) {
+            throw new IllegalArgumentException("At most 100 authors per feed");
+        }
+        if (size > 50) {
+            size = 50; // Limit maximum page size
+        }
+        if (shardedTweetStore.isEnabled()) {
+            return getShardedAuthorsPage(userRepository.findByUsernameIn(usernames), page, size);
+        }
+        if (!tweetArchiveService.isEnabled()) {
+            return tweetRepository.findByUserUsernameInOrderByTimestampDescIdDesc(
+                usernames, PageRequest.of(page, size));
+        }
+        int pageSize = size;
+        List<String> authors = usernames.stream().distinct().collect(Collectors.toList());
+        return tweetArchiveService.readConsistent(() -> {
+            Page<Tweet> hot = tweetRepository.findByUserUsernameInOrderByTimestampDescIdDesc(
+                authors, PageRequest.of(page, pageSize));
+            long archivedCount = authors.stream().mapToLong(tweetArchiveService::countArchivedByUser).sum();
+            List<Tweet> content = new ArrayList<>(hot.getContent());
+            if (content.size() < pageSize) {
+                // Each author's archive is already newest first, so they merge like shards do.
+                // The merged page can draw at most skip + limit tweets from any one author.
+                long skip = Math.max(0, (long) page * pageSize - hot.getTotalElements());
+                int limit = pageSize - content.size();
+                int perAuthor = (int) Math.min(Integer.MAX_VALUE, skip + limit);
+                List<List<Tweet>> archived = authors.stream()
+                    .map(author -> tweetArchiveService.readArchivedByUser(author, 0, perAuthor))
+                    .collect(Collectors.toList());
+                content.addAll(KWayMerge.merge(archived, ShardedTweetStore.NEWEST_FIRST, skip, limit));
+            }
+            return new PageImpl<>(content, PageRequest.of(page, pageSize), hot.getTotalElements() + archivedCount);
+        });
+    }
+
+    private Page<Tweet> getShardedAuthorsPage(List<User> authors, int page, int size) {
+        if (authors.isEmpty()) {
+            return Page.empty(PageRequest.of(page, size));
+        }
+        return new PageImpl<>(shardedTweetStore.findByAuthors(authors, (long) page * size, size),
+            PageRequest.of(page, size), shardedTweetStore.countByAuthors(authors));
+    }
+}
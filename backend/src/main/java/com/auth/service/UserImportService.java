@@ -0,0 +1,322 @@
+package com.auth.service;
+
+import com.auth.cache.CacheService;
+import com.auth.cluster.ClusterInvalidationService;
+import com.auth.model.User;
+import com.auth.repository.UserRepository;
+import com.auth.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Bulk user onboarding: streams NDJSON or CSV, hashes passwords in parallel, dedupes
+// against the database with one IN query per batch and inserts with JDBC batches.
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    private static final String INSERT_SQL = "insert into users (username, password, role) values (?, ?, ?)";
+    private static final int MAX_TRACKED_JOBS = 20;
+    private static final Set<String> ROLES = Set.of("USER", "ADMIN");
+
+    // Progress of one import, readable while the import runs
+    public static class ImportJob {
+        private final String id = UUID.randomUUID().toString();
+        private final long startedAt = System.currentTimeMillis();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong invalid = new AtomicLong();
+        private volatile long finishedAt = 0;
+        private volatile String error;
+
+        public String getId() {
+            return id;
+        }
+
+        public Map<String, Object> toMap() {
+            long elapsed = (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+            Map<String, Object> progress = new LinkedHashMap<>();
+            progress.put("id", id);
+            progress.put("status", error != null ? "FAILED" : finishedAt > 0 ? "FINISHED" : "RUNNING");
+            progress.put("processed", processed.get());
+            progress.put("imported", imported.get());
+            progress.put("duplicates", duplicates.get());
+            progress.put("invalid", invalid.get());
+            progress.put("elapsedMs", elapsed);
+            progress.put("usersPerSecond", elapsed > 0 ? imported.get() * 1000.0 / elapsed : 0);
+            if (error != null) {
+                progress.put("error", error);
+            }
+            return progress;
+        }
+    }
+
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>(); // Most recent jobs, oldest first
+    private ForkJoinPool hashingPool;
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${users.import.batch-size:1000}")
+    private int batchSize;
+
+    // Leave some cores for interactive logins by default
+    @Value("${users.import.hash-threads:0}")
+    private int hashThreads;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private UsernameFilterService usernameFilterService;
+
+    @Autowired
+    private ClusterInvalidationService clusterInvalidationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostConstruct
+    public void init() {
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        hashingPool = new ForkJoinPool(threads);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    public synchronized List<Map<String, Object>> getJobs() {
+        return jobs.values().stream().map(ImportJob::toMap).collect(Collectors.toList());
+    }
+
+    // Import users from a stream; csv selects "username,password[,role]" lines, otherwise NDJSON.
+    // The job fails once more than maxBytes are read; batches already inserted are kept.
+    public ImportJob importUsers(InputStream input, boolean csv, long maxBytes) {
+        ImportJob job = new ImportJob();
+        trackJob(job);
+        logger.info("Starting user import {} ({})", job.getId(), csv ? "CSV" : "NDJSON");
+
+        List<User> cacheCandidates = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new LimitedInputStream(input, maxBytes), StandardCharsets.UTF_8))) {
+            List<User> batch = new ArrayList<>(batchSize);
+            String line;
+            boolean firstLine = true;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || (csv && firstLine && line.toLowerCase(Locale.ROOT).startsWith("username"))) {
+                    firstLine = false;
+                    continue; // Blank line or CSV header
+                }
+                firstLine = false;
+                job.processed.incrementAndGet();
+                User user = parse(line, csv);
+                if (user == null) {
+                    job.invalid.incrementAndGet();
+                    continue;
+                }
+                batch.add(user);
+                if (batch.size() >= batchSize) {
+                    importBatch(batch, job, cacheCandidates);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                importBatch(batch, job, cacheCandidates);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("User import {} failed: {}", job.getId(), e.getMessage());
+            job.error = e.getMessage();
+        }
+
+        // Build the cache index once, for as many imported users as fit without evictions
+        if (!cacheCandidates.isEmpty()) {
+            cacheService.addUsersToCache(cacheCandidates);
+        }
+        job.finishedAt = System.currentTimeMillis();
+        logger.info("User import {} finished: {}", job.getId(), job.toMap());
+        return job;
+    }
+
+    private void importBatch(List<User> batch, ImportJob job, List<User> cacheCandidates) {
+        // Dedupe inside the batch, then against the database with one IN query
+        Map<String, User> unique = new LinkedHashMap<>();
+        for (User user : batch) {
+            if (unique.putIfAbsent(user.getUsername(), user) != null) {
+                job.duplicates.incrementAndGet();
+            }
+        }
+        Set<String> existing = new HashSet<>(userRepository.findExistingUsernames(unique.keySet()));
+        job.duplicates.addAndGet(existing.size());
+        unique.keySet().removeAll(existing);
+        if (unique.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = hashPasswords(new ArrayList<>(unique.values()));
+        List<String> inserted = insertRows(rows, job);
+        inserted.forEach(usernameFilterService::add);
+        // Other nodes' filters must learn the usernames too, as after a registration
+        clusterInvalidationService.publishUsersImported(inserted);
+        job.imported.addAndGet(inserted.size());
+
+        int cacheRoom = cacheService.getFreeCapacity() - cacheCandidates.size();
+        if (cacheRoom > 0) {
+            List<String> toCache = inserted.subList(0, Math.min(cacheRoom, inserted.size()));
+            cacheCandidates.addAll(userRepository.findByUsernameIn(toCache));
+        }
+        logger.info("User import {}: {}", job.getId(), job.toMap());
+    }
+
+    // BCrypt every password on the fork-join pool; rows are ready for the insert statement
+    private List<Object[]> hashPasswords(List<User> users) {
+        try {
+            return hashingPool.submit(() -> users.parallelStream()
+                .map(user -> new Object[] {
+                    user.getUsername(),
+                    passwordEncoder.getDelegate().encode(user.getPassword()),
+                    user.getRole() == null || user.getRole().isEmpty() ? "USER" : user.getRole()
+                })
+                .collect(Collectors.toList()))
+                .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // JDBC batch insert in one transaction; if a concurrent registration took one of the
+    // usernames, the batch rolls back and is retried row by row so only conflicts are skipped
+    private List<String> insertRows(List<Object[]> rows, ImportJob job) {
+        List<String> inserted = new ArrayList<>(rows.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+            for (Object[] row : rows) {
+                inserted.add((String) row[0]);
+            }
+        } catch (DataIntegrityViolationException batchFailure) {
+            for (Object[] row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, row);
+                    inserted.add((String) row[0]);
+                } catch (DataIntegrityViolationException e) {
+                    job.duplicates.incrementAndGet();
+                }
+            }
+        }
+        return inserted;
+    }
+
+    private User parse(String line, boolean csv) {
+        User user;
+        if (csv) {
+            String[] fields = line.split(",", -1);
+            if (fields.length < 2) {
+                return null;
+            }
+            user = new User();
+            user.setUsername(fields[0].trim());
+            user.setPassword(fields[1].trim());
+            user.setRole(fields.length > 2 ? fields[2].trim() : null);
+        } else {
+            try {
+                user = objectMapper.readValue(line, User.class);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        if (!UsernameValidator.isValid(user.getUsername())
+                || user.getPassword() == null || user.getPassword().trim().isEmpty()
+                || (user.getRole() != null && !user.getRole().isEmpty() && !ROLES.contains(user.getRole()))) {
+            return null;
+        }
+        return user;
+    }
+
+    private synchronized void trackJob(ImportJob job) {
+        if (jobs.size() >= MAX_TRACKED_JOBS) {
+            jobs.remove(jobs.keySet().iterator().next());
+        }
+        jobs.put(job.getId(), job);
+    }
+
+    // Fails the read once the limit is passed, so an oversized upload stops consuming the request thread
+    private static class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count = 0;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new IOException("Import exceeds the limit of " + limit + " bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.auth.service;
+
+import com.auth.dsa.ScalableBloomFilter;
+import com.auth.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bloom filter of every registered username. A negative answer means the username is
+// definitely free, so registration can skip the exists query. The unique constraint on
+// users.username still guards against races and filter rebuilds.
+@Service
+public class UsernameFilterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsernameFilterService.class);
+    private static final int LOAD_PAGE_SIZE = 10000;
+
+    private ScalableBloomFilter filter;
+    private volatile boolean ready = false;
+    private final AtomicLong skippedQueries = new AtomicLong();
+
+    @Value("${users.bloom-filter.initial-capacity:100000}")
+    private int initialCapacity;
+
+    @Value("${users.bloom-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PostConstruct
+    public void init() {
+        filter = new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+    }
+
+    // Load existing usernames page by page once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadUsernames() {
+        long start = System.currentTimeMillis();
+        Pageable pageable = PageRequest.of(0, LOAD_PAGE_SIZE);
+        Slice<String> page;
+        do {
+            page = userRepository.findAllUsernames(pageable);
+            page.forEach(filter::add);
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        ready = true;
+        logger.info("Username filter built with {} usernames in {} ms",
+            filter.approximateSize(), System.currentTimeMillis() - start);
+    }
+
+    // False only when the username is definitely not registered
+    public boolean mightExist(String username) {
+        if (!ready) {
+            return true; // Not built yet, callers must check the database
+        }
+        if (filter.mightContain(username)) {
+            return true;
+        }
+        skippedQueries.incrementAndGet();
+        return false;
+    }
+
+    public void add(String username) {
+        filter.add(username);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ready", ready);
+        stats.put("usernames", filter.approximateSize());
+        stats.put("memoryBytes", filter.memoryBytes());
+        stats.put("skippedExistsQueries", skippedQueries.get());
+        return stats;
+    }
+}
@@ -0,0 +1,16 @@
+package com.auth.service;
+
+import java.util.regex.Pattern;
+
+// Usernames are email addresses; shared by registration and bulk import
+public final class UsernameValidator {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$");
+
+    private UsernameValidator() {
+    }
+
+    public static boolean isValid(String username) {
+        return username != null && EMAIL_PATTERN.matcher(username).matches();
+    }
+}
@@ -0,0 +1,264 @@
+package com.auth.storage;
+
+import com.auth.dsa.KWayMerge;
+import com.auth.model.Tweet;
+import com.auth.model.User;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Tweets split across N databases by author (user id mod N). Writes go to the author's shard;
+// feeds query every involved shard in parallel and k-way merge the newest-first results.
+// Ids encode their shard: id = sequence * N + shard, where sequence comes from a sequence in the
+// shard's database, so every node writing to that database draws from the same counter.
+@Service
+public class ShardedTweetStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedTweetStore.class);
+
+    // Feed order: newest first, ties broken by id
+    public static final Comparator<Tweet> NEWEST_FIRST = Comparator.comparing(Tweet::getTimestamp)
+        .thenComparing(Tweet::getId)
+        .reversed();
+
+    private static final String SELECT = "select id, user_id, username, content, created_at from tweets ";
+    private static final String ORDER = " order by created_at desc, id desc limit :limit";
+
+    private static final RowMapper<Tweet> TWEET_MAPPER = (rs, rowNum) -> {
+        User user = new User();
+        user.setId(rs.getLong("user_id"));
+        user.setUsername(rs.getString("username"));
+        Tweet tweet = new Tweet();
+        tweet.setId(rs.getLong("id"));
+        tweet.setUser(user);
+        tweet.setContent(rs.getString("content"));
+        tweet.setTimestamp(rs.getTimestamp("created_at").toLocalDateTime());
+        return tweet;
+    };
+
+    private static final class Shard {
+        private final int index;
+        private final HikariDataSource dataSource;
+        private final NamedParameterJdbcTemplate jdbc;
+        private final AtomicLong rows;
+        private final AtomicLong writes = new AtomicLong();
+        private final AtomicLong reads = new AtomicLong();
+
+        Shard(int index, HikariDataSource dataSource, long rowCount) {
+            this.index = index;
+            this.dataSource = dataSource;
+            this.jdbc = new NamedParameterJdbcTemplate(dataSource);
+            this.rows = new AtomicLong(rowCount);
+        }
+    }
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final AtomicLong countRefreshedAt = new AtomicLong(System.currentTimeMillis());
+    private ExecutorService queryPool;
+
+    @Value("${tweets.shards.count:1}")
+    private int shardCount;
+
+    @Value("${tweets.shards.url-pattern:jdbc:h2:mem:tweets_shard_%d;DB_CLOSE_DELAY=-1}")
+    private String urlPattern;
+
+    @Value("${tweets.shards.username:sa}")
+    private String username;
+
+    @Value("${tweets.shards.password:}")
+    private String password;
+
+    // Threads for parallel shard queries (0 = one per shard)
+    @Value("${tweets.shards.query-threads:0}")
+    private int queryThreads;
+
+    // How often count() re-reads the real row counts instead of the local counters
+    @Value("${tweets.shards.count-refresh-ms:5000}")
+    private long countRefreshMillis;
+
+    // Deepest offset a feed page may start at; every involved shard reads offset + size rows
+    @Value("${tweets.shards.max-offset:1000}")
+    private long maxOffset;
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        for (int i = 0; i < shardCount; i++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(String.format(urlPattern, i))
+                .username(username)
+                .password(password)
+                .build();
+            dataSource.setPoolName("tweet-shard-" + i);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("create table if not exists tweets (id bigint primary key, user_id bigint not null, "
+                + "username varchar(255) not null, content varchar(280) not null, created_at timestamp not null)");
+            jdbc.execute("create index if not exists tweets_feed on tweets (created_at desc, id desc)");
+            jdbc.execute("create index if not exists tweets_author on tweets (user_id, created_at desc, id desc)");
+            // Starts past existing rows; a sequence another node already created is left as is
+            Long maxId = jdbc.queryForObject("select max(id) from tweets", Long.class);
+            jdbc.execute("create sequence if not exists tweet_ids start with "
+                + ((maxId == null ? 0 : maxId / shardCount) + 1));
+            Long rowCount = jdbc.queryForObject("select count(*) from tweets", Long.class);
+            shards.add(new Shard(i, dataSource, rowCount));
+        }
+
+        int threads = queryThreads > 0 ? queryThreads : shardCount;
+        AtomicInteger threadNumber = new AtomicInteger();
+        queryPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tweet-shard-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Sharded tweet store enabled: {} shards, {} query threads", shardCount, threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (queryPool != null) {
+            queryPool.shutdownNow();
+        }
+        shards.forEach(shard -> shard.dataSource.close());
+    }
+
+    public boolean isEnabled() {
+        return shardCount > 1;
+    }
+
+    // Insert into the author's shard; assigns the tweet id
+    public Tweet save(Tweet tweet) {
+        Shard shard = shardFor(tweet.getUser().getId());
+        Long sequence = shard.jdbc.getJdbcTemplate().queryForObject("select next value for tweet_ids", Long.class);
+        tweet.setId(sequence * shardCount + shard.index);
+        shard.jdbc.update("insert into tweets (id, user_id, username, content, created_at) "
+                + "values (:id, :userId, :username, :content, :createdAt)",
+            new MapSqlParameterSource()
+                .addValue("id", tweet.getId())
+                .addValue("userId", tweet.getUser().getId())
+                .addValue("username", tweet.getUser().getUsername())
+                .addValue("content", tweet.getContent())
+                .addValue("createdAt", Timestamp.valueOf(tweet.getTimestamp())));
+        shard.rows.incrementAndGet();
+        shard.writes.incrementAndGet();
+        return tweet;
+    }
+
+    // Global feed: every shard returns its first offset + limit tweets, merged newest first
+    public List<Tweet> findFeed(long offset, int limit) {
+        checkDepth(offset);
+        List<List<Tweet>> perShard = scatter(shards, shard -> shard.jdbc.query(SELECT + ORDER,
+            new MapSqlParameterSource("limit", offset + limit), TWEET_MAPPER));
+        return KWayMerge.merge(perShard, NEWEST_FIRST, offset, limit);
+    }
+
+    // Feed of the given authors: only their shards are queried
+    public List<Tweet> findByAuthors(Collection<User> authors, long offset, int limit) {
+        checkDepth(offset);
+        Map<Shard, List<Long>> authorsByShard = groupByShard(authors);
+        List<Shard> involved = new ArrayList<>(authorsByShard.keySet());
+        List<List<Tweet>> perShard = scatter(involved, shard -> shard.jdbc.query(
+            SELECT + "where user_id in (:userIds)" + ORDER,
+            new MapSqlParameterSource("userIds", authorsByShard.get(shard)).addValue("limit", offset + limit),
+            TWEET_MAPPER));
+        return KWayMerge.merge(perShard, NEWEST_FIRST, offset, limit);
+    }
+
+    // Total tweets from per-shard counters kept by save(), so feed polls don't scatter a
+    // count(*). One caller per refresh interval re-reads the real counts, which picks up rows
+    // written by other nodes sharing the shard databases; in between the total is approximate.
+    public long count() {
+        long now = System.currentTimeMillis();
+        long refreshedAt = countRefreshedAt.get();
+        if (now - refreshedAt >= countRefreshMillis && countRefreshedAt.compareAndSet(refreshedAt, now)) {
+            List<Long> counts = scatter(shards, shard -> shard.jdbc.getJdbcTemplate()
+                .queryForObject("select count(*) from tweets", Long.class));
+            for (int i = 0; i < shards.size(); i++) {
+                shards.get(i).rows.set(counts.get(i));
+            }
+        }
+        return shards.stream().mapToLong(shard -> shard.rows.get()).sum();
+    }
+
+    // One count per involved shard over all of its authors, run in parallel
+    public long countByAuthors(Collection<User> authors) {
+        Map<Shard, List<Long>> authorsByShard = groupByShard(authors);
+        List<Shard> involved = new ArrayList<>(authorsByShard.keySet());
+        return scatter(involved, shard -> shard.jdbc.queryForObject(
+                "select count(*) from tweets where user_id in (:userIds)",
+                new MapSqlParameterSource("userIds", authorsByShard.get(shard)), Long.class))
+            .stream().mapToLong(Long::longValue).sum();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("shards", shards.size());
+        List<Map<String, Object>> perShard = new ArrayList<>();
+        for (Shard shard : shards) {
+            Map<String, Object> shardStats = new LinkedHashMap<>();
+            shardStats.put("shard", shard.index);
+            shardStats.put("rows", shard.rows.get());
+            shardStats.put("writes", shard.writes.get());
+            shardStats.put("reads", shard.reads.get());
+            shardStats.put("activeConnections", shard.dataSource.getHikariPoolMXBean() == null ? 0
+                : shard.dataSource.getHikariPoolMXBean().getActiveConnections());
+            perShard.add(shardStats);
+        }
+        stats.put("perShard", perShard);
+        return stats;
+    }
+
+    private void checkDepth(long offset) {
+        if (offset > maxOffset) {
+            throw new IllegalArgumentException("Pages starting after " + maxOffset + " tweets are not served");
+        }
+    }
+
+    private Map<Shard, List<Long>> groupByShard(Collection<User> authors) {
+        return authors.stream().collect(Collectors.groupingBy(
+            author -> shardFor(author.getId()), LinkedHashMap::new,
+            Collectors.mapping(User::getId, Collectors.toList())));
+    }
+
+    private Shard shardFor(long userId) {
+        return shards.get((int) Math.floorMod(userId, (long) shardCount));
+    }
+
+    // Run the query on every shard in parallel and wait for all results, in shard order
+    private <R> List<R> scatter(List<Shard> targets, Function<Shard, R> query) {
+        List<CompletableFuture<R>> futures = targets.stream()
+            .map(shard -> CompletableFuture.supplyAsync(() -> {
+                shard.reads.incrementAndGet();
+                return query.apply(shard);
+            }, queryPool))
+            .collect(Collectors.toList());
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,269 @@
+package com.auth.storage;
+
+import com.auth.model.Tweet;
+import com.auth.repository.TweetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Cold tier for tweets: a background job moves tweets older than the hot window out of the
+// database into immutable, compressed segment files (one or more per day). Every archived
+// tweet is older than every tweet still in the database, so a newest-first listing is the
+// database rows followed by the segments. Readers that combine both tiers go through
+// readConsistent, so a batch moving between them is seen exactly once.
+@Service
+public class TweetArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TweetArchiveService.class);
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final List<TweetSegment> segments = new CopyOnWriteArrayList<>(); // Newest first
+    // Held for writing while a batch is deleted from the database and its segment published
+    private final ReadWriteLock publishLock = new ReentrantReadWriteLock();
+    private ScheduledExecutorService scheduler;
+    private volatile long archivedTweets = 0;
+    private volatile long lastRunAt = 0;
+
+    @Value("${tweets.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tweets.archive.dir:data/tweet-segments}")
+    private String directory;
+
+    @Value("${tweets.archive.hot-hours:24}")
+    private long hotHours;
+
+    @Value("${tweets.archive.interval-minutes:10}")
+    private long intervalMinutes;
+
+    @Value("${tweets.archive.block-size:128}")
+    private int blockSize;
+
+    @Value("${tweets.archive.max-segment-tweets:10000}")
+    private int maxSegmentTweets;
+
+    @Autowired
+    private TweetRepository tweetRepository;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        List<TweetSegment> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.seg")) {
+            for (Path file : files) {
+                try {
+                    loaded.add(TweetSegment.open(file));
+                } catch (IOException e) {
+                    logger.warn("Skipping unreadable tweet segment {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        loaded.sort(Comparator.comparingLong(TweetSegment::getNewestMillis)
+            .thenComparing(segment -> segment.getPath().getFileName().toString())
+            .reversed());
+        segments.addAll(loaded);
+        archivedTweets = loaded.stream().mapToLong(TweetSegment::getTweetCount).sum();
+        logger.info("Tweet archive enabled: {} segments, {} tweets in {}", segments.size(), archivedTweets, dir);
+        // Before serving reads, so rows left behind by a crash are never listed twice
+        recoverLastSegment();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tweet-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runCompaction, 1, intervalMinutes * 60, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (TweetSegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close tweet segment {}", segment.getPath());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getArchivedCount() {
+        return archivedTweets;
+    }
+
+    // Run a read spanning the database and the archive without racing a compaction
+    public <T> T readConsistent(Supplier<T> read) {
+        publishLock.readLock().lock();
+        try {
+            return read.get();
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    // Archived tweets at positions [skip, skip + limit), newest first
+    public List<Tweet> readArchived(long skip, int limit) {
+        List<Tweet> tweets = new ArrayList<>(limit);
+        for (TweetSegment segment : segments) {
+            if (tweets.size() >= limit) {
+                break;
+            }
+            if (skip >= segment.getTweetCount()) {
+                skip -= segment.getTweetCount();
+                continue;
+            }
+            tweets.addAll(segment.read((int) skip, limit - tweets.size()));
+            skip = 0;
+        }
+        return tweets;
+    }
+
+    // A user's archived tweets at positions [skip, skip + limit), newest first. Segments
+    // without the user, or entirely before skip, are passed over using their user index.
+    public List<Tweet> readArchivedByUser(String username, long skip, int limit) {
+        List<Tweet> tweets = new ArrayList<>();
+        for (TweetSegment segment : segments) {
+            if (tweets.size() >= limit) {
+                break;
+            }
+            int count = segment.countByUser(username);
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+            tweets.addAll(segment.readByUser(username, (int) skip, limit - tweets.size()));
+            skip = 0;
+        }
+        return tweets;
+    }
+
+    public long countArchivedByUser(String username) {
+        long count = 0;
+        for (TweetSegment segment : segments) {
+            count += segment.countByUser(username);
+        }
+        return count;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("segments", segments.size());
+        stats.put("archivedTweets", archivedTweets);
+        stats.put("segmentBytes", segments.stream().mapToLong(this::fileSize).sum());
+        stats.put("hotHours", hotHours);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("files", segments.stream()
+            .map(segment -> segment.getPath().getFileName().toString())
+            .collect(Collectors.toList()));
+        return stats;
+    }
+
+    private void runCompaction() {
+        try {
+            compact(LocalDateTime.now().minusHours(hotHours));
+        } catch (Exception e) {
+            logger.error("Tweet compaction failed: {}", e.getMessage());
+        }
+        lastRunAt = System.currentTimeMillis();
+    }
+
+    // Move every tweet older than cutoff into segments, oldest chunk first
+    void compact(LocalDateTime cutoff) throws IOException {
+        while (true) {
+            List<Tweet> chunk = tweetRepository.findByTimestampBeforeOrderByTimestampAscIdAsc(
+                cutoff, PageRequest.of(0, maxSegmentTweets));
+            if (chunk.isEmpty()) {
+                return;
+            }
+            // Partition by day; TreeMap keeps the oldest day first so segments are added in time order
+            Map<LocalDate, List<Tweet>> days = chunk.stream().collect(Collectors.groupingBy(
+                tweet -> tweet.getTimestamp().toLocalDate(), TreeMap::new, Collectors.toList()));
+            for (Map.Entry<LocalDate, List<Tweet>> day : days.entrySet()) {
+                archive(day.getKey(), day.getValue());
+            }
+        }
+    }
+
+    private void archive(LocalDate day, List<Tweet> oldestFirst) throws IOException {
+        List<Tweet> tweets = new ArrayList<>(oldestFirst);
+        Collections.reverse(tweets);
+        Path file = Paths.get(directory, "tweets-" + day.format(DAY) + "-" + oldestFirst.get(0).getId() + ".seg");
+        TweetSegment segment = TweetSegment.write(file, tweets, blockSize);
+
+        // The segment is durable before the rows go; a crash in between is repaired at startup.
+        // Deleting and publishing under the write lock hides the batch from neither tier or both.
+        publishLock.writeLock().lock();
+        try {
+            tweetRepository.deleteAllByIdInBatch(tweets.stream().map(Tweet::getId).collect(Collectors.toList()));
+            segments.add(0, segment);
+            archivedTweets += segment.getTweetCount();
+        } catch (RuntimeException e) {
+            // The rows stay; the next run rewrites the same file from them
+            segment.close();
+            throw e;
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+        logger.info("Archived {} tweets from {} into {}", tweets.size(), day, file.getFileName());
+    }
+
+    // Delete rows that were written to the newest segment but not yet removed from the database
+    private void recoverLastSegment() {
+        if (segments.isEmpty()) {
+            return;
+        }
+        TweetSegment newest = segments.get(0);
+        List<Long> ids = newest.read(0, newest.getTweetCount()).stream()
+            .map(Tweet::getId)
+            .collect(Collectors.toList());
+        tweetRepository.deleteAllByIdInBatch(ids);
+    }
+
+    private long fileSize(TweetSegment segment) {
+        try {
+            return Files.size(segment.getPath());
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
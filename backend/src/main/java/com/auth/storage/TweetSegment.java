@@ -0,0 +1,332 @@
+package com.auth.storage;
+
+import com.auth.model.Tweet;
+import com.auth.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Immutable, compressed file of archived tweets, newest first.
+// Layout: block* | block index | user index | footer
+//   block       = deflate(record*), record = id, userId, username, epochSecond, nano, content
+//   block index = per block: offset(8) | length(4) | count(4)
+//   user index  = userCount(4), per user: username(UTF) | blockCount(4) | (block(4) | count(4))*
+//   footer      = newestMillis(8) | blockIndexOffset(8) | userIndexOffset(8) | blockCount(4)
+//                 | tweetCount(4) | magic(4)
+// Positional reads decompress only the blocks they cover; per-user reads only the blocks
+// holding that user's tweets, and skip whole blocks using the per-block counts.
+public class TweetSegment implements Closeable {
+
+    private static final int MAGIC = 0x54534732; // "TSG2"
+    private static final int BLOCK_ENTRY_SIZE = 16;
+    private static final int FOOTER_SIZE = 36;
+
+    // Blocks holding a user's tweets, newest first, with that user's tweet count in each
+    private static final class UserBlocks {
+        final int[] blocks;
+        final int[] counts;
+        final int tweetCount;
+
+        UserBlocks(int[] blocks, int[] counts) {
+            this.blocks = blocks;
+            this.counts = counts;
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            this.tweetCount = total;
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long newestMillis;
+    private final int tweetCount;
+    private final long[] blockOffsets;
+    private final int[] blockLengths;
+    private final int[] blockCounts;
+    private final Map<String, UserBlocks> users;
+
+    private TweetSegment(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < FOOTER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Truncated or oversized tweet segment (" + fileSize + " bytes): " + path);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+
+            int footer = buffer.capacity() - FOOTER_SIZE;
+            if (buffer.getInt(footer + 32) != MAGIC) {
+                throw new IOException("Not a tweet segment: " + path);
+            }
+            this.newestMillis = buffer.getLong(footer);
+            long blockIndexOffset = buffer.getLong(footer + 8);
+            long userIndexOffset = buffer.getLong(footer + 16);
+            int blockCount = buffer.getInt(footer + 24);
+            this.tweetCount = buffer.getInt(footer + 28);
+            if (blockCount < 0 || tweetCount < 0 || blockIndexOffset < 0
+                    || blockIndexOffset + (long) blockCount * BLOCK_ENTRY_SIZE != userIndexOffset
+                    || userIndexOffset > footer) {
+                throw new IOException("Corrupt tweet segment index: " + path);
+            }
+
+            this.blockOffsets = new long[blockCount];
+            this.blockLengths = new int[blockCount];
+            this.blockCounts = new int[blockCount];
+            long counted = 0;
+            for (int i = 0; i < blockCount; i++) {
+                int entry = (int) blockIndexOffset + i * BLOCK_ENTRY_SIZE;
+                blockOffsets[i] = buffer.getLong(entry);
+                blockLengths[i] = buffer.getInt(entry + 8);
+                blockCounts[i] = buffer.getInt(entry + 12);
+                if (blockOffsets[i] < 0 || blockLengths[i] < 0 || blockCounts[i] < 0
+                        || blockOffsets[i] + blockLengths[i] > blockIndexOffset) {
+                    throw new IOException("Corrupt block " + i + " in tweet segment: " + path);
+                }
+                counted += blockCounts[i];
+            }
+            if (counted != tweetCount) {
+                throw new IOException("Block counts do not add up to " + tweetCount + " tweets: " + path);
+            }
+            this.users = readUserIndex((int) userIndexOffset, footer - (int) userIndexOffset, blockCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static TweetSegment open(Path path) throws IOException {
+        return new TweetSegment(path);
+    }
+
+    // Write tweets (sorted newest first) to a new segment file, atomically
+    public static TweetSegment write(Path path, List<Tweet> tweets, int blockSize) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteArrayOutputStream blockIndex = new ByteArrayOutputStream();
+            DataOutputStream blockIndexOut = new DataOutputStream(blockIndex);
+            // Insertion order keeps each user's block list newest first
+            Map<String, Map<Integer, Integer>> userBlocks = new LinkedHashMap<>();
+            long offset = 0;
+            int blockCount = 0;
+            for (int start = 0; start < tweets.size(); start += blockSize) {
+                List<Tweet> block = tweets.subList(start, Math.min(start + blockSize, tweets.size()));
+                byte[] compressed = compress(block);
+                writeFully(out, ByteBuffer.wrap(compressed));
+
+                blockIndexOut.writeLong(offset);
+                blockIndexOut.writeInt(compressed.length);
+                blockIndexOut.writeInt(block.size());
+                for (Tweet tweet : block) {
+                    userBlocks.computeIfAbsent(tweet.getUser().getUsername(), name -> new LinkedHashMap<>())
+                        .merge(blockCount, 1, Integer::sum);
+                }
+                offset += compressed.length;
+                blockCount++;
+            }
+            writeFully(out, ByteBuffer.wrap(blockIndex.toByteArray()));
+            long userIndexOffset = offset + blockIndex.size();
+
+            ByteArrayOutputStream userIndex = new ByteArrayOutputStream();
+            DataOutputStream userIndexOut = new DataOutputStream(userIndex);
+            userIndexOut.writeInt(userBlocks.size());
+            for (Map.Entry<String, Map<Integer, Integer>> user : userBlocks.entrySet()) {
+                userIndexOut.writeUTF(user.getKey());
+                userIndexOut.writeInt(user.getValue().size());
+                for (Map.Entry<Integer, Integer> block : user.getValue().entrySet()) {
+                    userIndexOut.writeInt(block.getKey());
+                    userIndexOut.writeInt(block.getValue());
+                }
+            }
+            writeFully(out, ByteBuffer.wrap(userIndex.toByteArray()));
+
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+            footer.putLong(tweets.isEmpty() ? Long.MIN_VALUE : toMillis(tweets.get(0).getTimestamp()))
+                .putLong(offset)
+                .putLong(userIndexOffset)
+                .putInt(blockCount)
+                .putInt(tweets.size())
+                .putInt(MAGIC);
+            footer.flip();
+            writeFully(out, footer);
+            out.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getTweetCount() {
+        return tweetCount;
+    }
+
+    // Timestamp (epoch millis, UTC) of the newest tweet in the segment
+    public long getNewestMillis() {
+        return newestMillis;
+    }
+
+    // Tweets at positions [skip, skip + limit) in newest-first order
+    public List<Tweet> read(int skip, int limit) {
+        List<Tweet> tweets = new ArrayList<>(limit);
+        int blockStart = 0;
+        for (int block = 0; block < blockCounts.length && tweets.size() < limit; block++) {
+            int blockEnd = blockStart + blockCounts[block];
+            if (blockEnd > skip) {
+                List<Tweet> blockTweets = decompress(block);
+                for (int i = Math.max(0, skip - blockStart); i < blockTweets.size() && tweets.size() < limit; i++) {
+                    tweets.add(blockTweets.get(i));
+                }
+            }
+            blockStart = blockEnd;
+        }
+        return tweets;
+    }
+
+    // Number of tweets by one user, from the user index
+    public int countByUser(String username) {
+        UserBlocks entry = users.get(username);
+        return entry == null ? 0 : entry.tweetCount;
+    }
+
+    // One user's tweets at positions [skip, skip + limit) in newest-first order
+    public List<Tweet> readByUser(String username, int skip, int limit) {
+        UserBlocks entry = users.get(username);
+        if (entry == null || skip >= entry.tweetCount) {
+            return Collections.emptyList();
+        }
+        List<Tweet> tweets = new ArrayList<>(Math.min(limit, entry.tweetCount - skip));
+        int seen = 0;
+        for (int i = 0; i < entry.blocks.length && tweets.size() < limit; i++) {
+            if (seen + entry.counts[i] <= skip) {
+                seen += entry.counts[i];
+                continue; // Whole block is before the requested range
+            }
+            for (Tweet tweet : decompress(entry.blocks[i])) {
+                if (!tweet.getUser().getUsername().equals(username)) {
+                    continue;
+                }
+                if (seen++ >= skip && tweets.size() < limit) {
+                    tweets.add(tweet);
+                }
+            }
+        }
+        return tweets;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Map<String, UserBlocks> readUserIndex(int offset, int length, int blockCount) throws IOException {
+        byte[] bytes = new byte[length];
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offset);
+        slice.get(bytes);
+        // A short or garbled index fails with EOFException rather than reading past the section
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int userCount = in.readInt();
+            if (userCount < 0) {
+                throw new IOException("Corrupt user index in tweet segment: " + path);
+            }
+            Map<String, UserBlocks> index = new HashMap<>();
+            for (int u = 0; u < userCount; u++) {
+                String username = in.readUTF();
+                int entries = in.readInt();
+                if (entries < 0 || entries > blockCount) {
+                    throw new IOException("Corrupt user index in tweet segment: " + path);
+                }
+                int[] blocks = new int[entries];
+                int[] counts = new int[entries];
+                for (int i = 0; i < entries; i++) {
+                    blocks[i] = in.readInt();
+                    counts[i] = in.readInt();
+                    if (blocks[i] < 0 || blocks[i] >= blockCount || counts[i] < 0 || counts[i] > blockCounts[blocks[i]]) {
+                        throw new IOException("Corrupt user index in tweet segment: " + path);
+                    }
+                }
+                index.put(username, new UserBlocks(blocks, counts));
+            }
+            return index;
+        }
+    }
+
+    private static byte[] compress(List<Tweet> block) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            for (Tweet tweet : block) {
+                out.writeLong(tweet.getId());
+                out.writeLong(tweet.getUser().getId());
+                out.writeUTF(tweet.getUser().getUsername());
+                out.writeLong(tweet.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(tweet.getTimestamp().getNano());
+                out.writeUTF(tweet.getContent());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<Tweet> decompress(int block) {
+        byte[] compressed = new byte[blockLengths[block]];
+        ByteBuffer slice = buffer.duplicate();
+        slice.position((int) blockOffsets[block]);
+        slice.get(compressed);
+
+        List<Tweet> tweets = new ArrayList<>(blockCounts[block]);
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)))) {
+            for (int i = 0; i < blockCounts[block]; i++) {
+                Tweet tweet = new Tweet();
+                tweet.setId(in.readLong());
+                User user = new User();
+                user.setId(in.readLong());
+                user.setUsername(in.readUTF());
+                tweet.setUser(user);
+                tweet.setTimestamp(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC));
+                tweet.setContent(in.readUTF());
+                tweets.add(tweet);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt block " + block + " in " + path, e);
+        }
+        return tweets;
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+    }
+}
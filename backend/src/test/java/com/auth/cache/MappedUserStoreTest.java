@@ -0,0 +1,86 @@
+package com.auth.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedUserStoreTest {
+
+    private static final String HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3OaP8Ja2wbrBaUvcQcEGq.m";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void putGetAndRemove() throws Exception {
+        try (MappedUserStore store = MappedUserStore.open(dir.resolve("users.mmap"), 100)) {
+            assertTrue(store.put("alice@example.com", 1, "USER", HASH));
+            MappedUserStore.StoredUser alice = store.get("alice@example.com");
+            assertEquals(1, alice.getId());
+            assertEquals("USER", alice.getRole());
+            assertEquals(HASH, alice.getPasswordHash());
+
+            assertTrue(store.remove("alice@example.com"));
+            assertNull(store.get("alice@example.com"));
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void reopenKeepsRecords() throws Exception {
+        Path file = dir.resolve("users.mmap");
+        try (MappedUserStore store = MappedUserStore.open(file, 100)) {
+            store.put("alice@example.com", 1, "USER", HASH);
+            store.put("bob@example.com", 2, null, HASH);
+        }
+        try (MappedUserStore store = MappedUserStore.open(file, 100)) {
+            assertEquals(2, store.size());
+            assertEquals(2, store.get("bob@example.com").getId());
+            assertNull(store.get("bob@example.com").getRole());
+        }
+        // A different capacity starts over
+        try (MappedUserStore store = MappedUserStore.open(file, 50)) {
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void churnDoesNotExhaustEmptySlots() throws Exception {
+        try (MappedUserStore store = MappedUserStore.open(dir.resolve("users.mmap"), 100)) {
+            // Promote/evict cycles: every name is inserted and removed once, many times the capacity
+            for (int i = 0; i < 10_000; i++) {
+                String username = "user" + i + "@example.com";
+                assertTrue(store.put(username, i, "USER", HASH));
+                assertTrue(store.remove(username));
+                assertTrue(store.tombstones() <= store.capacity() / 4);
+            }
+            for (int i = 0; i < 80; i++) {
+                assertTrue(store.put("live" + i + "@example.com", i, "USER", HASH));
+            }
+            assertEquals(80, store.size());
+            assertNull(store.get("missing@example.com"));
+            for (int i = 0; i < 80; i++) {
+                assertEquals(i, store.get("live" + i + "@example.com").getId());
+            }
+        }
+    }
+
+    @Test
+    void rejectsInsertsPastTheLoadFactor() throws Exception {
+        try (MappedUserStore store = MappedUserStore.open(dir.resolve("users.mmap"), 10)) {
+            for (int i = 0; i < 9; i++) {
+                assertTrue(store.put("user" + i + "@example.com", i, "USER", HASH));
+            }
+            assertFalse(store.put("overflow@example.com", 99, "USER", HASH));
+            // Updating an existing record still works when full
+            assertTrue(store.put("user0@example.com", 100, "USER", HASH));
+            assertEquals(100, store.get("user0@example.com").getId());
+        }
+    }
+}
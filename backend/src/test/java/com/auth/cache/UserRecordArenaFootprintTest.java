@@ -0,0 +1,38 @@
+package com.auth.cache;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Measures the heap kept by the arena with JOL. Records live off heap, so the heap cost per
+// entry is the hash index alone and the object count must not grow with the entry count.
+class UserRecordArenaFootprintTest {
+
+    private static final String HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3OaP8Ja2wbrBaUvcQcEGq.m";
+
+    @Test
+    void heapPerEntryIsTheIndexOnly() {
+        int entries = 100_000;
+        UserRecordArena small = fill(1_000);
+        UserRecordArena large = fill(entries);
+
+        GraphLayout layout = GraphLayout.parseInstance(large);
+        double heapBytesPerEntry = (double) layout.totalSize() / entries;
+        System.out.printf("arena: %d entries, %d heap objects, %.1f heap bytes/entry, %d off-heap bytes/entry%n",
+            entries, layout.totalCount(), heapBytesPerEntry, large.offHeapBytes() / entries);
+
+        assertTrue(heapBytesPerEntry <= UserRecordArena.INDEX_BYTES_PER_SLOT,
+            "heap bytes per entry: " + heapBytesPerEntry);
+        assertTrue(layout.totalCount() == GraphLayout.parseInstance(small).totalCount(),
+            "heap objects grow with the number of entries");
+    }
+
+    private static UserRecordArena fill(int entries) {
+        UserRecordArena arena = new UserRecordArena(entries);
+        for (int i = 0; i < entries; i++) {
+            arena.allocate(UserRecordArena.encodeKey("user" + i + "@example.com"), i, "USER", HASH, i);
+        }
+        return arena;
+    }
+}
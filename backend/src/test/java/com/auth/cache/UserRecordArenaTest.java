@@ -0,0 +1,95 @@
+package com.auth.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserRecordArenaTest {
+
+    private static final String HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3OaP8Ja2wbrBaUvcQcEGq.m";
+
+    @Test
+    void storesAndFindsRecords() {
+        UserRecordArena arena = new UserRecordArena(10);
+        int slot = arena.allocate(UserRecordArena.encodeKey("alice@example.com"), 7, "ADMIN", HASH, 100);
+        assertEquals(slot, arena.find(UserRecordArena.encodeKey("alice@example.com")));
+        assertEquals(-1, arena.find(UserRecordArena.encodeKey("bob@example.com")));
+        assertEquals("alice@example.com", arena.getUsername(slot));
+        assertEquals(7, arena.getId(slot));
+        assertEquals("ADMIN", arena.getRole(slot));
+        assertEquals(HASH, arena.getPasswordHash(slot));
+        assertEquals(100, arena.getLastAccess(slot));
+
+        arena.free(slot);
+        assertEquals(-1, arena.find(UserRecordArena.encodeKey("alice@example.com")));
+        assertEquals(0, arena.size());
+    }
+
+    @Test
+    void evictsInLeastRecentlyUsedOrder() {
+        UserRecordArena arena = new UserRecordArena(3);
+        int a = arena.allocate(UserRecordArena.encodeKey("a@example.com"), 1, "USER", HASH, 1);
+        int b = arena.allocate(UserRecordArena.encodeKey("b@example.com"), 2, "USER", HASH, 2);
+        int c = arena.allocate(UserRecordArena.encodeKey("c@example.com"), 3, "USER", HASH, 3);
+        assertEquals(-1, arena.allocate(UserRecordArena.encodeKey("d@example.com"), 4, "USER", HASH, 4));
+        assertEquals(a, arena.leastRecentlyUsedSlot());
+
+        arena.touch(a, 5);
+        assertEquals(b, arena.leastRecentlyUsedSlot());
+        arena.free(b);
+        assertEquals(c, arena.leastRecentlyUsedSlot());
+        assertEquals(Arrays.asList(a, c), arena.occupiedSlots());
+
+        // The freed slot is reused and the new record is the most recently used
+        int d = arena.allocate(UserRecordArena.encodeKey("d@example.com"), 4, "USER", HASH, 6);
+        assertEquals(b, d);
+        assertEquals(Arrays.asList(d, a, c), arena.occupiedSlots());
+    }
+
+    @Test
+    void matchesAHashMapUnderRandomChurn() {
+        // Sorted and random keys, growth past the initial 1024 slots, and removals that shift probe runs
+        UserRecordArena arena = new UserRecordArena(5_000);
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int step = 0; step < 50_000; step++) {
+            String username = "user" + random.nextInt(8_000) + "@example.com";
+            byte[] key = UserRecordArena.encodeKey(username);
+            int slot = arena.find(key);
+            assertEquals(expected.containsKey(username), slot >= 0);
+            if (slot >= 0 && random.nextInt(3) == 0) {
+                arena.free(slot);
+                expected.remove(username);
+            } else if (slot >= 0) {
+                arena.touch(slot, step);
+            } else if (arena.size() < 5_000) {
+                expected.put(username, arena.allocate(key, step, "USER", HASH, step));
+            }
+        }
+        assertEquals(expected.size(), arena.size());
+        assertEquals(expected.size(), arena.occupiedSlots().size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().intValue(), arena.find(UserRecordArena.encodeKey(entry.getKey())));
+            assertEquals(entry.getKey(), arena.getUsername(entry.getValue()));
+        }
+    }
+
+    @Test
+    void rejectsKeysAndHashesThatDoNotFit() {
+        assertTrue(UserRecordArena.fits("alice@example.com", HASH));
+        StringBuilder longName = new StringBuilder();
+        while (longName.length() <= UserRecordArena.MAX_KEY_BYTES) {
+            longName.append("a");
+        }
+        assertFalse(UserRecordArena.fits(longName + "@example.com", HASH));
+        assertFalse(UserRecordArena.fits("alice@example.com", HASH + HASH));
+        assertFalse(UserRecordArena.fits("alice@example.com", null));
+    }
+}
@@ -0,0 +1,45 @@
+package com.auth.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MessageAuthenticatorTest {
+
+    private final MessageAuthenticator authenticator =
+        new MessageAuthenticator("a-shared-cluster-secret".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void signedMessageRoundTrips() {
+        ClusterMessage message = new ClusterMessage(ClusterMessage.Type.SESSION_REVOKE, "node-1", 1234L, "a|b@example.com");
+        ClusterMessage decoded = ClusterMessage.decode(authenticator.verify(authenticator.sign(message.encode())));
+        assertEquals(ClusterMessage.Type.SESSION_REVOKE, decoded.getType());
+        assertEquals("node-1", decoded.getOriginNodeId());
+        assertEquals(1234L, decoded.getSentAt());
+        assertEquals("a|b@example.com", decoded.getUsername());
+    }
+
+    @Test
+    void userIdRoundTripsWhenPresent() {
+        ClusterMessage message = new ClusterMessage(ClusterMessage.Type.USER_DELETE, "node-1", 1234L, 42L, "a|b@example.com");
+        ClusterMessage decoded = ClusterMessage.decode(authenticator.verify(authenticator.sign(message.encode())));
+        assertEquals(Long.valueOf(42), decoded.getUserId());
+        assertEquals("a|b@example.com", decoded.getUsername());
+
+        assertNull(ClusterMessage.decode(new ClusterMessage(ClusterMessage.Type.USER_UPSERT, "node-1", 1234L, "alice").encode()).getUserId());
+    }
+
+    @Test
+    void rejectsTamperedOrForeignMessages() {
+        byte[] signed = authenticator.sign("USER_DELETE|node-1|1234|alice@example.com".getBytes(StandardCharsets.UTF_8));
+        signed[0] ^= 1;
+        assertNull(authenticator.verify(signed));
+
+        MessageAuthenticator other = new MessageAuthenticator("some-other-cluster-key".getBytes(StandardCharsets.UTF_8));
+        assertNull(authenticator.verify(other.sign("USER_DELETE|node-2|1234|alice@example.com".getBytes(StandardCharsets.UTF_8))));
+        assertNull(authenticator.verify(new byte[4]));
+    }
+}
@@ -0,0 +1,56 @@
+package com.auth.dsa;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+    @Test
+    void neverUnderCounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add("key-" + (i % 500), 1);
+        }
+        for (int i = 0; i < 500; i++) {
+            assertTrue(sketch.estimate("key-" + i) >= 10);
+        }
+    }
+
+    @Test
+    void overCountStaysWithinTheErrorBound() {
+        int width = 1024;
+        CountMinSketch sketch = new CountMinSketch(4, width);
+        long total = 0;
+        for (int i = 0; i < 20_000; i++) {
+            sketch.add("tag" + i, 1);
+            total++;
+        }
+        // Error <= 2N/width with probability 1 - (1/2)^depth per key
+        long bound = 2 * total / width;
+        int outside = 0;
+        for (int i = 0; i < 20_000; i++) {
+            if (sketch.estimate("tag" + i) - 1 > bound) {
+                outside++;
+            }
+        }
+        assertTrue(outside < 20_000 / 16, "keys over the bound: " + outside);
+    }
+
+    @Test
+    void rowsDoNotShareCollisions() {
+        // "Aa" and "BB" have the same String.hashCode(), so they must not collide in every row
+        CountMinSketch sketch = new CountMinSketch(4, 2048);
+        sketch.add("Aa", 100);
+        assertEquals(0, sketch.estimate("BB"));
+    }
+
+    @Test
+    void clearResetsCounts() {
+        CountMinSketch sketch = new CountMinSketch(2, 64);
+        sketch.add("java", 3);
+        sketch.clear();
+        assertEquals(0, sketch.estimate("java"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.auth.dsa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KWayMergeTest {
+
+    @Test
+    void matchesSortingTheConcatenation() {
+        Random random = new Random(42);
+        List<List<Integer>> sources = new ArrayList<>();
+        List<Integer> all = new ArrayList<>();
+        for (int s = 0; s < 7; s++) {
+            List<Integer> source = new ArrayList<>();
+            for (int i = random.nextInt(50); i > 0; i--) {
+                source.add(random.nextInt(1_000));
+            }
+            source.sort(Comparator.reverseOrder());
+            sources.add(source);
+            all.addAll(source);
+        }
+        all.sort(Comparator.reverseOrder());
+
+        for (int skip : new int[] {0, 5, 100, all.size() - 3, all.size() + 10}) {
+            List<Integer> expected = all.subList(Math.min(skip, all.size()), Math.min(skip + 20, all.size()));
+            assertEquals(expected, KWayMerge.merge(sources, Comparator.reverseOrder(), skip, 20));
+        }
+    }
+
+    @Test
+    void handlesEmptySources() {
+        assertTrue(KWayMerge.merge(Collections.<List<Integer>>emptyList(), Comparator.<Integer>naturalOrder(), 0, 10).isEmpty());
+        List<List<Integer>> sources = Arrays.asList(Collections.emptyList(), Arrays.asList(1, 3), Collections.emptyList());
+        assertEquals(Arrays.asList(1, 3), KWayMerge.merge(sources, Comparator.naturalOrder(), 0, 10));
+    }
+
+    @Test
+    void readsEachSourceOnlyAsFarAsNeeded() {
+        CountingIterable first = new CountingIterable(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+        CountingIterable second = new CountingIterable(Arrays.asList(10, 20, 30, 40));
+        List<Integer> merged = KWayMerge.merge(Arrays.asList(first, second), Comparator.naturalOrder(), 2, 3);
+        assertEquals(Arrays.asList(3, 4, 5), merged);
+        // Each source is read at most one element past the last one the page used
+        assertEquals(6, first.reads);
+        assertEquals(1, second.reads);
+    }
+
+    private static final class CountingIterable implements Iterable<Integer> {
+        private final List<Integer> values;
+        private int reads = 0;
+
+        CountingIterable(List<Integer> values) {
+            this.values = values;
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            Iterator<Integer> delegate = values.iterator();
+            return new Iterator<Integer>() {
+                @Override
+                public boolean hasNext() {
+                    return delegate.hasNext();
+                }
+
+                @Override
+                public Integer next() {
+                    reads++;
+                    return delegate.next();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.auth.dsa;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void hasNoFalseNegativesAcrossLayers() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+        assertEquals(20_000, filter.approximateSize());
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        double target = 0.01;
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, target);
+        // Grows through several layers
+        for (int i = 0; i < 30_000; i++) {
+            filter.add("member-" + i);
+        }
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("stranger-" + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate <= target * 1.5, "false positive rate " + rate);
+    }
+
+    @Test
+    void growsWhenTheFirstLayerIsFull() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        assertFalse(filter.mightContain("alice@example.com"));
+        long initialBytes = filter.memoryBytes();
+        for (int i = 0; i < 101; i++) {
+            filter.add("key" + i);
+        }
+        assertTrue(filter.memoryBytes() > initialBytes);
+    }
+}
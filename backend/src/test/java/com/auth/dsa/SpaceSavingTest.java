@@ -0,0 +1,49 @@
+package com.auth.dsa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingTest {
+
+    @Test
+    void tracksHeavyHittersInAStreamOfManyKeys() {
+        SpaceSaving summary = new SpaceSaving(10);
+        for (int i = 0; i < 10_000; i++) {
+            // Every 4th item is "hot", the rest are spread over 2,500 distinct keys
+            summary.offer(i % 4 == 0 ? "hot" : "cold-" + (i % 2_500), 1);
+        }
+        List<SpaceSaving.Counter> top = summary.top(1);
+        assertEquals("hot", top.get(0).getKey());
+        SpaceSaving.Counter hot = top.get(0);
+        // Counts never under-estimate, and count - error is a lower bound
+        assertTrue(hot.getCount() >= 2_500);
+        assertTrue(hot.getCount() - hot.getError() <= 2_500);
+    }
+
+    @Test
+    void replacedKeyInheritsTheMinimumCountAsError() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.offer("a", 5);
+        summary.offer("b", 2);
+        summary.offer("c", 1);
+        List<SpaceSaving.Counter> top = summary.top(2);
+        assertEquals("a", top.get(0).getKey());
+        assertEquals("c", top.get(1).getKey());
+        assertEquals(3, top.get(1).getCount());
+        assertEquals(2, top.get(1).getError());
+    }
+
+    @Test
+    void decayDropsKeysThatReachZero() {
+        SpaceSaving summary = new SpaceSaving(4);
+        summary.offer("steady", 8);
+        summary.offer("once", 1);
+        summary.decay(0.5);
+        assertEquals(1, summary.keys().size());
+        assertEquals(4, summary.top(1).get(0).getCount());
+    }
+}
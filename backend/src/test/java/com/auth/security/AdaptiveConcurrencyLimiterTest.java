@@ -0,0 +1,57 @@
+package com.auth.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long TARGET_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void rejectsOnceTheLimitIsInFlight() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 3, 1, 10, TARGET_NANOS, 0.9);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1L, limiter.getStats().get("rejected"));
+    }
+
+    @Test
+    void backsOffWhileLatencyIsOverTargetAndRecovers() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 2, 20, TARGET_NANOS, 0.9);
+        long now = 0;
+        // Ten windows of slow responses: one multiplicative decrease per window
+        for (int window = 0; window < 10; window++) {
+            now += TARGET_NANOS;
+            int admitted = acquireAll(limiter);
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(2 * TARGET_NANOS, now);
+            }
+        }
+        int backedOff = (int) limiter.getStats().get("limit");
+        assertTrue(backedOff < 5 && backedOff >= 2, "limit after overload: " + backedOff);
+
+        // Fast responses at full utilisation grow the limit again, additively
+        for (int round = 0; round < 50; round++) {
+            int admitted = acquireAll(limiter);
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(TARGET_NANOS / 10, now);
+            }
+        }
+        assertTrue((int) limiter.getStats().get("limit") > backedOff);
+    }
+
+    private int acquireAll(AdaptiveConcurrencyLimiter limiter) {
+        int admitted = 0;
+        while (limiter.tryAcquire()) {
+            admitted++;
+        }
+        return admitted;
+    }
+}
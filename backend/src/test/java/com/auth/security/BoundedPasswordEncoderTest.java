@@ -0,0 +1,105 @@
+package com.auth.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    // Stands in for BCrypt: every hash blocks until released
+    private static class BlockingEncoder implements PasswordEncoder {
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private final BlockingEncoder delegate = new BlockingEncoder();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        delegate.release.countDown();
+        callers.shutdownNow();
+        encoder.shutdown();
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 2, 5000);
+        // One task running, two queued
+        List<CompletableFuture<String>> admitted = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String password = "p" + i;
+            admitted.add(CompletableFuture.supplyAsync(() -> encoder.encode(password), callers));
+        }
+        Thread.sleep(200);
+
+        long start = System.nanoTime();
+        assertThrows(HashingOverloadedException.class, () -> encoder.encode("overflow"));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100), "rejection should not wait");
+
+        delegate.release.countDown();
+        for (int i = 0; i < admitted.size(); i++) {
+            assertEquals("hashed:p" + i, admitted.get(i).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void waitIsBoundedByTheTimeout() {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 10, 200);
+        long start = System.nanoTime();
+        assertThrows(HashingOverloadedException.class, () -> encoder.encode("slow"));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(waitedMillis >= 200 && waitedMillis < 1000, "waited " + waitedMillis + " ms");
+    }
+
+    @Test
+    void overloadNeverQueuesMoreThanTheCapacity() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 2, 4, 5000);
+        AtomicInteger rejected = new AtomicInteger();
+        List<CompletableFuture<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            calls.add(CompletableFuture.runAsync(() -> {
+                try {
+                    encoder.encode("burst");
+                } catch (HashingOverloadedException e) {
+                    rejected.incrementAndGet();
+                }
+            }, callers));
+        }
+        Thread.sleep(300);
+        delegate.release.countDown();
+        for (CompletableFuture<?> call : calls) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+        // 2 running + 4 queued at most; everything else was turned away
+        assertEquals(44, rejected.get());
+    }
+}
@@ -0,0 +1,164 @@
+package com.auth.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Saturates the limiting filters with concurrent clients and checks that excess requests
+// are turned away immediately while admitted requests only pay their own service time
+class OverloadProtectionTest {
+
+    private static final int CLIENTS = 40;
+    private static final int LOGIN_LIMIT = 5;
+    private static final long SERVICE_MILLIS = 200;
+    private static final long FAST_REJECTION_MILLIS = 50;
+
+    private final ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+
+    // Result of one simulated request
+    private static final class Outcome {
+        private final int status;
+        private final long latencyMillis;
+        private final String retryAfter;
+
+        Outcome(int status, long latencyMillis, String retryAfter) {
+            this.status = status;
+            this.latencyMillis = latencyMillis;
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void concurrencyLimitShedsOverloadWithFast503s() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter();
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "minLimit", 2);
+        ReflectionTestUtils.setField(filter, "loginInitial", LOGIN_LIMIT);
+        ReflectionTestUtils.setField(filter, "loginMax", LOGIN_LIMIT);
+        ReflectionTestUtils.setField(filter, "loginTargetMs", 1000L);
+        ReflectionTestUtils.setField(filter, "feedReadInitial", 50);
+        ReflectionTestUtils.setField(filter, "feedReadMax", 200);
+        ReflectionTestUtils.setField(filter, "feedReadTargetMs", 100L);
+        ReflectionTestUtils.setField(filter, "tweetWriteInitial", 20);
+        ReflectionTestUtils.setField(filter, "tweetWriteMax", 100);
+        ReflectionTestUtils.setField(filter, "tweetWriteTargetMs", 200L);
+        filter.init();
+
+        // Every admitted login holds its slot for the service time, like a saturated BCrypt pool
+        FilterChain slowBackend = (request, response) -> sleep(SERVICE_MILLIS);
+        List<Outcome> outcomes = runConcurrently(() -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            long start = System.nanoTime();
+            filter.doFilter(request, response, slowBackend);
+            return new Outcome(response.getStatus(), elapsedMillis(start), response.getHeader("Retry-After"));
+        });
+
+        long admitted = outcomes.stream().filter(outcome -> outcome.status == 200).count();
+        long shed = outcomes.stream().filter(outcome -> outcome.status == 503).count();
+        assertEquals(CLIENTS, admitted + shed);
+        assertTrue(admitted >= 1 && admitted <= LOGIN_LIMIT, "admitted " + admitted);
+        for (Outcome outcome : outcomes) {
+            if (outcome.status == 503) {
+                assertTrue(outcome.latencyMillis < FAST_REJECTION_MILLIS, "503 took " + outcome.latencyMillis + " ms");
+                assertEquals("1", outcome.retryAfter);
+            } else {
+                // No queueing in front of the backend: admitted latency is the service time
+                assertTrue(outcome.latencyMillis < SERVICE_MILLIS + 100, "200 took " + outcome.latencyMillis + " ms");
+            }
+        }
+    }
+
+    @Test
+    void rateLimitAnswersExcessLoginsWithFast429s() throws Exception {
+        RateLimiter rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiter, "idleTimeoutSeconds", 600L);
+        ReflectionTestUtils.setField(rateLimiter, "loginCapacity", 3.0);
+        ReflectionTestUtils.setField(rateLimiter, "loginRefill", 0.01);
+        ReflectionTestUtils.setField(rateLimiter, "registerCapacity", 5.0);
+        ReflectionTestUtils.setField(rateLimiter, "registerRefill", 0.1);
+        ReflectionTestUtils.setField(rateLimiter, "tweetsReadCapacity", 60.0);
+        ReflectionTestUtils.setField(rateLimiter, "tweetsReadRefill", 5.0);
+        ReflectionTestUtils.setField(rateLimiter, "tweetsWriteCapacity", 20.0);
+        ReflectionTestUtils.setField(rateLimiter, "tweetsWriteRefill", 0.5);
+        rateLimiter.init();
+        RateLimitFilter filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "rateLimiter", rateLimiter);
+
+        FilterChain backend = (request, response) -> { };
+        List<Outcome> outcomes = runConcurrently(() -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+            request.setRemoteAddr("203.0.113.7");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            long start = System.nanoTime();
+            filter.doFilter(request, response, backend);
+            return new Outcome(response.getStatus(), elapsedMillis(start), response.getHeader("Retry-After"));
+        });
+
+        assertEquals(3, outcomes.stream().filter(outcome -> outcome.status == 200).count());
+        for (Outcome outcome : outcomes) {
+            if (outcome.status == 429) {
+                assertTrue(outcome.latencyMillis < FAST_REJECTION_MILLIS, "429 took " + outcome.latencyMillis + " ms");
+                assertTrue(Long.parseLong(outcome.retryAfter) >= 1);
+            }
+        }
+
+        // Other clients keep their own budget
+        MockHttpServletRequest other = new MockHttpServletRequest("POST", "/api/auth/login");
+        other.setRemoteAddr("198.51.100.20");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(other, response, backend);
+        assertEquals(200, response.getStatus());
+    }
+
+    // All clients fire at once
+    private List<Outcome> runConcurrently(Callable<Outcome> request) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            futures.add(clients.submit(() -> {
+                start.await();
+                return request.call();
+            }));
+        }
+        start.countDown();
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Future<Outcome> future : futures) {
+            outcomes.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return outcomes;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.auth.service;
+
+import com.auth.cache.CacheService;
+import com.auth.cluster.ClusterInvalidationService;
+import com.auth.repository.UserRepository;
+import com.auth.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceTest {
+
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+
+    // Stands in for the database: records inserted rows, and rejects the usernames in
+    // conflicts the way a unique constraint would
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+        private final List<String> inserted = new ArrayList<>();
+        private final Set<String> conflicts;
+        private int batchCalls = 0;
+        private int rowCalls = 0;
+
+        RecordingJdbcTemplate(Set<String> conflicts) {
+            this.conflicts = conflicts;
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            batchCalls++;
+            for (Object[] row : batchArgs) {
+                if (conflicts.contains((String) row[0])) {
+                    throw new DuplicateKeyException("Unique index violation on " + row[0]);
+                }
+            }
+            for (Object[] row : batchArgs) {
+                inserted.add((String) row[0]);
+            }
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            rowCalls++;
+            if (conflicts.contains((String) args[0])) {
+                throw new DuplicateKeyException("Unique index violation on " + args[0]);
+            }
+            inserted.add((String) args[0]);
+            return 1;
+        }
+    }
+
+    private static class PlainEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CacheService cacheService = mock(CacheService.class);
+    private final UsernameFilterService usernameFilterService = mock(UsernameFilterService.class);
+    private final ClusterInvalidationService clusterInvalidationService = mock(ClusterInvalidationService.class);
+    private final BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(new PlainEncoder(), 1, 10, 1000);
+    private UserImportService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    void skipsMalformedRowsAndImportsTheRest() {
+        RecordingJdbcTemplate jdbc = createService(Set.of(), 100);
+        String ndjson = String.join("\n",
+            "{\"username\":\"alice@example.com\",\"password\":\"secret1\"}",
+            "{\"username\":\"bob@example.com\",\"password\":\"secret2\",\"role\":\"ADMIN\"}",
+            "{\"username\":\"carol@example.com\"",                                        // Truncated JSON
+            "{\"username\":\"not-an-email\",\"password\":\"secret3\"}",                  // Invalid username
+            "{\"username\":\"dave@example.com\",\"password\":\" \"}",                    // Blank password
+            "{\"username\":\"erin@example.com\",\"password\":\"x\",\"role\":\"ROOT\"}",  // Unknown role
+            "",
+            "{\"username\":\"grace@example.com\",\"password\":\"secret4\"}");
+
+        Map<String, Object> progress = service.importUsers(stream(ndjson), false, NO_LIMIT).toMap();
+
+        assertEquals("FINISHED", progress.get("status"));
+        assertEquals(7L, progress.get("processed"));
+        assertEquals(4L, progress.get("invalid"));
+        assertEquals(3L, progress.get("imported"));
+        assertEquals(List.of("alice@example.com", "bob@example.com", "grace@example.com"), jdbc.inserted);
+    }
+
+    @Test
+    void parsesCsvWithAHeaderAndOptionalRole() {
+        RecordingJdbcTemplate jdbc = createService(Set.of(), 100);
+        String csv = String.join("\n",
+            "username,password,role",
+            "alice@example.com,secret1",
+            "bob@example.com, secret2 ,ADMIN",
+            "carol@example.com",                // Missing password
+            "dave@example.com,secret3,ROOT");   // Unknown role
+
+        Map<String, Object> progress = service.importUsers(stream(csv), true, NO_LIMIT).toMap();
+
+        assertEquals(4L, progress.get("processed"));
+        assertEquals(2L, progress.get("invalid"));
+        assertEquals(List.of("alice@example.com", "bob@example.com"), jdbc.inserted);
+    }
+
+    @Test
+    void countsDuplicatesInsideTheFileAndAgainstTheDatabase() {
+        RecordingJdbcTemplate jdbc = createService(Set.of(), 100);
+        when(userRepository.findExistingUsernames(any())).thenReturn(List.of("taken@example.com"));
+        String csv = String.join("\n",
+            "alice@example.com,secret1",
+            "taken@example.com,secret2",
+            "alice@example.com,another",
+            "bob@example.com,secret3");
+
+        Map<String, Object> progress = service.importUsers(stream(csv), true, NO_LIMIT).toMap();
+
+        assertEquals(2L, progress.get("duplicates"));
+        assertEquals(2L, progress.get("imported"));
+        assertEquals(List.of("alice@example.com", "bob@example.com"), jdbc.inserted);
+    }
+
+    @Test
+    void failsOnceTheInputExceedsTheLimit() {
+        RecordingJdbcTemplate jdbc = createService(Set.of(), 100);
+        String csv = "alice@example.com,secret1\nbob@example.com,secret2\n";
+        int size = csv.getBytes(StandardCharsets.UTF_8).length;
+
+        Map<String, Object> tooLarge = service.importUsers(stream(csv), true, size - 1).toMap();
+        assertEquals("FAILED", tooLarge.get("status"));
+        assertTrue(String.valueOf(tooLarge.get("error")).contains("exceeds the limit"), String.valueOf(tooLarge.get("error")));
+        assertEquals(0, jdbc.inserted.size());
+
+        Map<String, Object> atLimit = service.importUsers(stream(csv), true, size).toMap();
+        assertEquals("FINISHED", atLimit.get("status"));
+        assertEquals(2L, atLimit.get("imported"));
+    }
+
+    @Test
+    void fallsBackToRowByRowWhenTheBatchHitsAConflict() {
+        // A concurrent registration took this username after the IN query
+        RecordingJdbcTemplate jdbc = createService(Set.of("raced@example.com"), 100);
+        String csv = String.join("\n",
+            "alice@example.com,secret1",
+            "raced@example.com,secret2",
+            "bob@example.com,secret3");
+
+        Map<String, Object> progress = service.importUsers(stream(csv), true, NO_LIMIT).toMap();
+
+        assertEquals(1, jdbc.batchCalls);
+        assertEquals(3, jdbc.rowCalls);
+        assertEquals(2L, progress.get("imported"));
+        assertEquals(1L, progress.get("duplicates"));
+        assertEquals(List.of("alice@example.com", "bob@example.com"), jdbc.inserted);
+        verify(usernameFilterService).add("alice@example.com");
+        verify(usernameFilterService, never()).add("raced@example.com");
+        verify(clusterInvalidationService).publishUsersImported(List.of("alice@example.com", "bob@example.com"));
+    }
+
+    @Test
+    void publishesImportedUsernamesOncePerBatch() {
+        createService(Set.of(), 2);
+        String csv = String.join("\n",
+            "a@example.com,secret1",
+            "b@example.com,secret2",
+            "c@example.com,secret3");
+
+        service.importUsers(stream(csv), true, NO_LIMIT);
+
+        verify(clusterInvalidationService).publishUsersImported(List.of("a@example.com", "b@example.com"));
+        verify(clusterInvalidationService).publishUsersImported(List.of("c@example.com"));
+        verify(clusterInvalidationService, never()).publishUserUpsert(anyString());
+    }
+
+    private RecordingJdbcTemplate createService(Set<String> conflicts, int batchSize) {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate(conflicts);
+        service = new UserImportService();
+        ReflectionTestUtils.setField(service, "batchSize", batchSize);
+        ReflectionTestUtils.setField(service, "hashThreads", 1);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(service, "cacheService", cacheService);
+        ReflectionTestUtils.setField(service, "usernameFilterService", usernameFilterService);
+        ReflectionTestUtils.setField(service, "clusterInvalidationService", clusterInvalidationService);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        service.init();
+        return jdbc;
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,122 @@
+package com.auth.storage;
+
+import com.auth.model.Tweet;
+import com.auth.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TweetSegmentTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_000_000);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsTweetsInNewestFirstOrder() throws IOException {
+        List<Tweet> tweets = tweets(1_000, 3);
+        try (TweetSegment segment = TweetSegment.write(dir.resolve("a.seg"), tweets, 64)) {
+            assertEquals(1_000, segment.getTweetCount());
+            assertEquals(tweets.get(0).getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                segment.getNewestMillis());
+            List<Tweet> page = segment.read(60, 10);
+            assertEquals(10, page.size());
+            for (int i = 0; i < 10; i++) {
+                assertSameTweet(tweets.get(60 + i), page.get(i));
+            }
+        }
+        // Reopening from disk gives the same tweets
+        try (TweetSegment reopened = TweetSegment.open(dir.resolve("a.seg"))) {
+            assertSameTweet(tweets.get(999), reopened.read(999, 5).get(0));
+            assertEquals(1, reopened.read(999, 5).size());
+        }
+    }
+
+    @Test
+    void readsOneUsersTweetsThroughTheUserIndex() throws IOException {
+        List<Tweet> tweets = tweets(500, 5);
+        try (TweetSegment segment = TweetSegment.write(dir.resolve("b.seg"), tweets, 32)) {
+            List<Tweet> expected = new ArrayList<>();
+            for (Tweet tweet : tweets) {
+                if (tweet.getUser().getUsername().equals("user2@example.com")) {
+                    expected.add(tweet);
+                }
+            }
+            assertEquals(expected.size(), segment.countByUser("user2@example.com"));
+            assertEquals(0, segment.countByUser("nobody@example.com"));
+            assertTrue(segment.readByUser("nobody@example.com", 0, 10).isEmpty());
+
+            // Skips past whole blocks, then continues inside one
+            List<Tweet> page = segment.readByUser("user2@example.com", 15, 20);
+            assertEquals(20, page.size());
+            for (int i = 0; i < 20; i++) {
+                assertSameTweet(expected.get(15 + i), page.get(i));
+            }
+            assertTrue(segment.readByUser("user2@example.com", expected.size(), 10).isEmpty());
+        }
+    }
+
+    @Test
+    void rejectsTruncatedAndForeignFiles() throws IOException {
+        Path path = dir.resolve("c.seg");
+        TweetSegment.write(path, tweets(200, 2), 16).close();
+        long size = Files.size(path);
+
+        Path tiny = dir.resolve("tiny.seg");
+        Files.write(tiny, new byte[10]);
+        assertThrows(IOException.class, () -> TweetSegment.open(tiny));
+
+        Path foreign = dir.resolve("foreign.seg");
+        Files.write(foreign, new byte[4096]);
+        assertThrows(IOException.class, () -> TweetSegment.open(foreign));
+
+        // Cutting the file loses the footer; the magic check or the index bounds must catch it
+        for (long cut : new long[] {size - 1, size - 40, size / 2}) {
+            Path truncated = dir.resolve("truncated-" + cut + ".seg");
+            Files.copy(path, truncated);
+            try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+                channel.truncate(cut);
+            }
+            assertThrows(IOException.class, () -> TweetSegment.open(truncated));
+        }
+    }
+
+    // count tweets spread over the given number of users, newest first
+    private static List<Tweet> tweets(int count, int users) {
+        List<Tweet> tweets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId((long) (i % users));
+            user.setUsername("user" + (i % users) + "@example.com");
+            Tweet tweet = new Tweet();
+            tweet.setId((long) (count - i));
+            tweet.setUser(user);
+            tweet.setContent("tweet #" + i + " with \u00fcn\u00efcode");
+            tweet.setTimestamp(START.minusSeconds(i));
+            tweets.add(tweet);
+        }
+        return tweets;
+    }
+
+    private static void assertSameTweet(Tweet expected, Tweet actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getContent(), actual.getContent());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getUser().getId(), actual.getUser().getId());
+        assertEquals(expected.getUser().getUsername(), actual.getUser().getUsername());
+    }
+}
@@ -57,7 +57,7 @@ const CacheMonitor = () => {
           <Typography variant="h6">Most Accessed Users</Typography>
           {stats.mostAccessedUsers.map((user) => (
             <Typography key={user.username}>
-              {user.username}: {user.hits} hits (Last access: {new Date(user.lastAccessed).toLocaleTimeString()})
+              {user.username}: {user.hits} hits (Last access: {user.lastAccessed ? new Date(user.lastAccessed).toLocaleTimeString() : 'evicted'})
             </Typography>
           ))}
         </Box>